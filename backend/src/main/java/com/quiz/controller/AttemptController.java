@@ -0,0 +1,66 @@
+package com.quiz.controller;
+
+import com.quiz.dto.AutosaveMetricsDTO;
+import com.quiz.dto.SubmissionRequestDTO;
+import com.quiz.dto.SubmissionResponseDTO;
+import com.quiz.entity.Attempt;
+import com.quiz.entity.Question;
+import com.quiz.service.AttemptService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/attempts")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Attempt", description = "In-progress attempts with autosave")
+public class AttemptController {
+    private final AttemptService attemptService;
+
+    @PostMapping
+    @Operation(summary = "Start an attempt", description = "Start an autosaved attempt for a quiz")
+    public ResponseEntity<Attempt> startAttempt(@RequestBody Map<String, Long> payload) {
+        Attempt attempt = attemptService.startAttempt(payload.get("quizId"));
+        return ResponseEntity.status(HttpStatus.CREATED).body(attempt);
+    }
+
+    @GetMapping("/{attemptId}/questions")
+    @Operation(summary = "Get attempt questions", description = "Questions of the attempt; pooled quizzes return the attempt's draw")
+    public ResponseEntity<List<Question>> getQuestions(@PathVariable String attemptId) {
+        return ResponseEntity.ok(attemptService.getQuestions(attemptId));
+    }
+
+    @GetMapping("/{attemptId}/answers")
+    @Operation(summary = "Get saved answers", description = "Retrieve the latest autosaved answers of an attempt")
+    public ResponseEntity<List<SubmissionRequestDTO.AnswerInputDTO>> getAnswers(@PathVariable String attemptId) {
+        return ResponseEntity.ok(attemptService.getAnswers(attemptId));
+    }
+
+    @PutMapping("/{attemptId}/answers")
+    @Operation(summary = "Autosave answers", description = "Buffer answer changes; they are persisted in the next batch")
+    public ResponseEntity<Void> saveAnswers(
+            @PathVariable String attemptId,
+            @RequestBody List<SubmissionRequestDTO.AnswerInputDTO> answers) {
+        attemptService.saveAnswers(attemptId, answers);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/{attemptId}/submit")
+    @Operation(summary = "Submit an attempt", description = "Grade the attempt from its saved answers")
+    public ResponseEntity<SubmissionResponseDTO> submitAttempt(@PathVariable String attemptId) {
+        SubmissionResponseDTO response = attemptService.submit(attemptId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Autosave metrics", description = "Coalescing ratio and flush latency of the autosave buffer")
+    public ResponseEntity<AutosaveMetricsDTO> getMetrics() {
+        return ResponseEntity.ok(attemptService.getMetrics());
+    }
+}
@@ -0,0 +1,27 @@
+package com.quiz.controller;
+
+import com.quiz.dto.LeaderboardEntryDTO;
+import com.quiz.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/quizzes/{quizId}/leaderboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Leaderboard", description = "Per-quiz ranking endpoints")
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    @Operation(summary = "Get top submissions", description = "Retrieve the highest scoring submissions of a quiz")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(
+            @PathVariable Long quizId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTopSubmissions(quizId, Math.max(limit, 0)));
+    }
+}
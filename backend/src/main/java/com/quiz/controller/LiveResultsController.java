@@ -0,0 +1,24 @@
+package com.quiz.controller;
+
+import com.quiz.service.LiveResultsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/quizzes/{quizId}/live")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Live Results", description = "Live submission feed for proctor dashboards")
+public class LiveResultsController {
+    private final LiveResultsService liveResultsService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live results", description = "Server-Sent Events stream of batched submission results for a quiz")
+    public SseEmitter streamLiveResults(@PathVariable Long quizId) {
+        return liveResultsService.subscribe(quizId);
+    }
+}
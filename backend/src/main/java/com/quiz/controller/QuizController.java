@@ -1,5 +1,6 @@
 package com.quiz.controller;
 
+import com.quiz.dto.QuizDeletionStatusDTO;
 import com.quiz.entity.Quiz;
 import com.quiz.service.QuizService;
 import lombok.RequiredArgsConstructor;
@@ -21,10 +22,11 @@ public class QuizController {
 
     @PostMapping
     @Operation(summary = "Create a new quiz", description = "Create a new quiz with title and description")
-    public ResponseEntity<Quiz> createQuiz(@RequestBody Map<String, String> payload) {
-        String title = payload.get("title");
-        String description = payload.get("description");
-        Quiz quiz = quizService.createQuiz(title, description);
+    public ResponseEntity<Quiz> createQuiz(@RequestBody Map<String, Object> payload) {
+        String title = (String) payload.get("title");
+        String description = (String) payload.get("description");
+        Integer poolSize = payload.get("poolSize") != null ? ((Number) payload.get("poolSize")).intValue() : null;
+        Quiz quiz = quizService.createQuiz(title, description, poolSize);
         return ResponseEntity.status(HttpStatus.CREATED).body(quiz);
     }
 
@@ -44,17 +46,29 @@ public class QuizController {
 
     @PutMapping("/{id}")
     @Operation(summary = "Update quiz", description = "Update an existing quiz details")
-    public ResponseEntity<Quiz> updateQuiz(@PathVariable Long id, @RequestBody Map<String, String> payload) {
-        String title = payload.get("title");
-        String description = payload.get("description");
-        Quiz quiz = quizService.updateQuiz(id, title, description);
+    public ResponseEntity<Quiz> updateQuiz(@PathVariable Long id, @RequestBody Map<String, Object> payload) {
+        String title = (String) payload.get("title");
+        String description = (String) payload.get("description");
+        Quiz quiz;
+        if (payload.containsKey("poolSize")) {
+            Integer poolSize = payload.get("poolSize") != null ? ((Number) payload.get("poolSize")).intValue() : null;
+            quiz = quizService.updateQuiz(id, title, description, poolSize);
+        } else {
+            quiz = quizService.updateQuiz(id, title, description);
+        }
         return ResponseEntity.ok(quiz);
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete quiz", description = "Delete a quiz by ID")
-    public ResponseEntity<Void> deleteQuiz(@PathVariable Long id) {
-        quizService.deleteQuiz(id);
-        return ResponseEntity.noContent().build();
+    @Operation(summary = "Delete quiz", description = "Hide a quiz immediately and delete its data in the background")
+    public ResponseEntity<QuizDeletionStatusDTO> deleteQuiz(@PathVariable Long id) {
+        QuizDeletionStatusDTO status = quizService.deleteQuiz(id);
+        return ResponseEntity.accepted().body(status);
+    }
+
+    @GetMapping("/{id}/deletion")
+    @Operation(summary = "Get deletion progress", description = "Progress of a background quiz deletion")
+    public ResponseEntity<QuizDeletionStatusDTO> getDeletionStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(quizService.getDeletionStatus(id));
     }
 }
@@ -0,0 +1,25 @@
+package com.quiz.controller;
+
+import com.quiz.dto.RegradeJobDTO;
+import com.quiz.service.RegradeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/quizzes/{quizId}/regrade-jobs")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Regrade", description = "Regrading after answer key changes")
+public class RegradeController {
+    private final RegradeService regradeService;
+
+    @GetMapping
+    @Operation(summary = "Get regrade jobs", description = "Progress and throughput of regrade jobs for a quiz, newest first")
+    public ResponseEntity<List<RegradeJobDTO>> getRegradeJobs(@PathVariable Long quizId) {
+        return ResponseEntity.ok(regradeService.getJobs(quizId));
+    }
+}
@@ -0,0 +1,28 @@
+package com.quiz.controller;
+
+import com.quiz.dto.SearchResultDTO;
+import com.quiz.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Search", description = "Keyword search over quizzes and questions")
+public class SearchController {
+    private final SearchService searchService;
+
+    @GetMapping
+    @Operation(summary = "Search quizzes and questions",
+            description = "Ranked keyword search; all terms must match and a term ending in * matches as a prefix")
+    public ResponseEntity<List<SearchResultDTO>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(q, Math.max(limit, 0)));
+    }
+}
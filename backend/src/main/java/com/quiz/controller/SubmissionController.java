@@ -2,6 +2,7 @@ package com.quiz.controller;
 
 import com.quiz.dto.SubmissionRequestDTO;
 import com.quiz.dto.SubmissionResponseDTO;
+import com.quiz.service.IdempotentSubmissionService;
 import com.quiz.service.SubmissionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -14,10 +15,13 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "http://localhost:3000")
 public class SubmissionController {
     private final SubmissionService submissionService;
+    private final IdempotentSubmissionService idempotentSubmissionService;
 
     @PostMapping
-    public ResponseEntity<SubmissionResponseDTO> submitQuiz(@RequestBody SubmissionRequestDTO request) {
-        SubmissionResponseDTO response = submissionService.submitQuiz(request);
+    public ResponseEntity<SubmissionResponseDTO> submitQuiz(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody SubmissionRequestDTO request) {
+        SubmissionResponseDTO response = idempotentSubmissionService.submit(request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -0,0 +1,20 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutosaveMetricsDTO {
+    private Long answerUpdates;   // Answer changes received from clients
+    private Long rowsFlushed;     // Draft rows actually written
+    private Double coalescingRatio;
+    private Long flushes;
+    private Long failedFlushes;
+    private Double lastFlushMillis;
+    private Double averageFlushMillis;
+    private Double maxFlushMillis;
+    private Integer bufferedAttempts;
+}
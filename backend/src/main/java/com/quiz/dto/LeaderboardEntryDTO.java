@@ -0,0 +1,15 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private Long rank;
+    private Long submissionId;
+    private Integer score;
+    private Double percentile;
+}
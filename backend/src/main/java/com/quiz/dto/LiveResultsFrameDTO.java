@@ -0,0 +1,28 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveResultsFrameDTO {
+    private Long quizId;
+    private Long submissionCount;
+    private Double averageScore;
+    private Integer omittedEvents; // Submissions in this batch beyond the per-frame limit
+    private List<SubmissionEventDTO> events;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubmissionEventDTO {
+        private Long submissionId;
+        private Integer score;
+        private Integer totalQuestions;
+        private LocalDateTime submittedAt;
+    }
+}
@@ -0,0 +1,19 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizDeletionStatusDTO {
+    private Long quizId;
+    private String status; // QUEUED, RUNNING, COMPLETED or FAILED
+    private String phase;  // Table currently being cleared
+    private Long rowsDeleted;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
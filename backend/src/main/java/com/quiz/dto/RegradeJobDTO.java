@@ -0,0 +1,23 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegradeJobDTO {
+    private Long jobId;
+    private Long quizId;
+    private Long questionId;
+    private String status;
+    private Long answersProcessed;
+    private Long answersChanged;
+    private Double answersPerSecond;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.quiz.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+    private String type;
+    private Long quizId;
+    private String quizTitle;
+    private Long questionId;
+    private String questionText;
+    private Double score;
+}
@@ -15,6 +15,8 @@ public class SubmissionResponseDTO {
     private Integer score;
     private Integer totalQuestions;
     private LocalDateTime submittedAt;
+    private Long rank;
+    private Double percentile;
     private List<AnswerResultDTO> answers;
 
     @Data
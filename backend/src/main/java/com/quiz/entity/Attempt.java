@@ -0,0 +1,43 @@
+package com.quiz.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * An in-progress quiz attempt. Answers are autosaved as {@link AttemptDraft} rows
+ * until the attempt is promoted to a {@link Submission}.
+ */
+@Entity
+@Table(name = "attempts")
+@Data
+@NoArgsConstructor
+public class Attempt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    // Reproduces the question draw when the quiz uses a question pool
+    @Column(nullable = false)
+    private Long seed;
+
+    // Comma-separated ids drawn when the attempt started on a pooled quiz; null means all questions
+    @Column(name = "question_ids", columnDefinition = "TEXT")
+    private String questionIds;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,33 @@
+package com.quiz.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Latest autosaved answer for one question of an attempt. Written in batches by
+ * plain SQL, so it only carries ids and no relationships.
+ */
+@Entity
+@Table(name = "attempt_drafts", uniqueConstraints = @UniqueConstraint(
+        name = "uk_attempt_drafts_attempt_question", columnNames = {"attempt_id", "question_id"}))
+@Data
+@NoArgsConstructor
+public class AttemptDraft {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "attempt_id", nullable = false, length = 36)
+    private String attemptId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "user_answer", columnDefinition = "TEXT")
+    private String userAnswer;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
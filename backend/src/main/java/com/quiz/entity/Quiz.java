@@ -28,6 +28,20 @@ public class Quiz {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // When set, each attempt draws this many random questions instead of using all of them
+    @Column(name = "pool_size")
+    private Integer poolSize;
+
+    // Bumped by QuizRepository.bumpBankVersion whenever questions are added or removed, so cached banks can tell they are stale
+    @Column(name = "bank_version", nullable = false, updatable = false)
+    @JsonIgnore
+    private Integer bankVersion = 0;
+
+    // Set when the quiz is deleted; its rows are then removed in the background
+    @Column(name = "deleted_at")
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private List<Question> questions;
 
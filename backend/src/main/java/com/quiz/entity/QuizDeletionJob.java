@@ -0,0 +1,55 @@
+package com.quiz.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Background removal of one tombstoned quiz. Kept after the quiz row itself is
+ * gone so its outcome can still be reported.
+ */
+@Entity
+@Table(name = "quiz_deletion_jobs")
+@Data
+@NoArgsConstructor
+public class QuizDeletionJob {
+    @Id
+    @Column(name = "quiz_id")
+    private Long quizId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    // Table currently being cleared
+    @Column(length = 20)
+    private String phase;
+
+    @Column(name = "rows_deleted", nullable = false)
+    private Long rowsDeleted = 0L;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
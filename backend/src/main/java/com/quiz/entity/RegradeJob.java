@@ -0,0 +1,76 @@
+package com.quiz.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Regrade of every answer to one question after its answer key changed.
+ * {@code lastAnswerId} is the checkpoint a restarted job resumes from.
+ */
+@Entity
+@Table(name = "regrade_jobs")
+@Data
+@NoArgsConstructor
+public class RegradeJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "last_answer_id", nullable = false)
+    private Long lastAnswerId;
+
+    @Column(name = "answers_processed", nullable = false)
+    private Long answersProcessed;
+
+    @Column(name = "answers_changed", nullable = false)
+    private Long answersChanged;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Version
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /** Start over from the first answer, e.g. because the key changed again. */
+    public void restart() {
+        lastAnswerId = 0L;
+        answersProcessed = 0L;
+        answersChanged = 0L;
+        startedAt = null;
+        finishedAt = null;
+        error = null;
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -29,6 +29,17 @@ public class Submission {
     @Column(name = "total_questions", nullable = false)
     private Integer totalQuestions;
 
+    @Column(name = "idempotency_key", unique = true, length = 128)
+    private String idempotencyKey;
+
+    // Hash of the request first sent with the idempotency key; a reused key must match it
+    @Column(name = "request_fingerprint", length = 64)
+    private String requestFingerprint;
+
+    // Seed of the question draw for pooled quizzes
+    @Column
+    private Long seed;
+
     @OneToMany(mappedBy = "submission", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     private List<Answer> answers;
 
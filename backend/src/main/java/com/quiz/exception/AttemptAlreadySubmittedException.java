@@ -0,0 +1,7 @@
+package com.quiz.exception;
+
+public class AttemptAlreadySubmittedException extends RuntimeException {
+    public AttemptAlreadySubmittedException(String attemptId) {
+        super("Attempt has already been submitted: " + attemptId);
+    }
+}
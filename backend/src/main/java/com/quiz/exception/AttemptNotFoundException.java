@@ -0,0 +1,7 @@
+package com.quiz.exception;
+
+public class AttemptNotFoundException extends RuntimeException {
+    public AttemptNotFoundException(String attemptId) {
+        super("Attempt not found with id: " + attemptId);
+    }
+}
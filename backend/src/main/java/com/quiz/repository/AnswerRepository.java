@@ -1,9 +1,31 @@
 package com.quiz.repository;
 
 import com.quiz.entity.Answer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 
 @Repository
 public interface AnswerRepository extends JpaRepository<Answer, Long> {
+    @Modifying
+    @Query("delete from Answer a where a.submission.id in :submissionIds")
+    int deleteBySubmissionIds(@Param("submissionIds") List<Long> submissionIds);
+
+    /** Next chunk of answers to a question after {@code afterId}, in id order, for keyset paging. */
+    @Query("select a.id as id, a.submission.id as submissionId, a.userAnswer as userAnswer, a.isCorrect as isCorrect " +
+           "from Answer a where a.question.id = :questionId and a.id > :afterId order by a.id")
+    List<GradingView> findChunkForGrading(@Param("questionId") Long questionId,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    interface GradingView {
+        Long getId();
+        Long getSubmissionId();
+        String getUserAnswer();
+        Boolean getIsCorrect();
+    }
 }
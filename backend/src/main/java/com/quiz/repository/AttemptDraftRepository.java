@@ -0,0 +1,22 @@
+package com.quiz.repository;
+
+import com.quiz.entity.AttemptDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface AttemptDraftRepository extends JpaRepository<AttemptDraft, Long> {
+    List<AttemptDraft> findByAttemptId(String attemptId);
+
+    @Modifying
+    @Query("delete from AttemptDraft d where d.attemptId = :attemptId")
+    int deleteByAttemptId(@Param("attemptId") String attemptId);
+
+    @Modifying
+    @Query("delete from AttemptDraft d where d.attemptId in :attemptIds")
+    int deleteByAttemptIds(@Param("attemptIds") List<String> attemptIds);
+}
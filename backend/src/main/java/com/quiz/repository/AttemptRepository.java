@@ -0,0 +1,30 @@
+package com.quiz.repository;
+
+import com.quiz.entity.Attempt;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttemptRepository extends JpaRepository<Attempt, String> {
+
+    /** Returns 0 when the attempt was already submitted by a concurrent request. */
+    @Modifying
+    @Query("update Attempt a set a.submissionId = :submissionId where a.id = :id and a.submissionId is null")
+    int markSubmitted(@Param("id") String id, @Param("submissionId") Long submissionId);
+
+    @Query("select a.id from Attempt a where a.quizId = :quizId and a.id in :ids")
+    List<String> findIdsByQuizIdAndIdIn(@Param("quizId") Long quizId, @Param("ids") Collection<String> ids);
+
+    @Query("select a.id from Attempt a where a.quizId = :quizId")
+    List<String> findIdsByQuizId(@Param("quizId") Long quizId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Attempt a where a.id in :ids")
+    int bulkDelete(@Param("ids") List<String> ids);
+}
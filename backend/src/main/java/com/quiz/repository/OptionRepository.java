@@ -1,9 +1,20 @@
 package com.quiz.repository;
 
 import com.quiz.entity.Option;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 
 @Repository
 public interface OptionRepository extends JpaRepository<Option, Long> {
+    @Query("select o.id from Option o where o.question.quiz.id = :quizId")
+    List<Long> findIdsByQuizId(@Param("quizId") Long quizId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Option o where o.id in :ids")
+    int bulkDelete(@Param("ids") List<Long> ids);
 }
@@ -1,11 +1,46 @@
 package com.quiz.repository;
 
 import com.quiz.entity.Question;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByQuizIdOrderByQuestionOrder(Long quizId);
+
+    @Query("select q.id from Question q where q.quiz.id = :quizId order by q.questionOrder, q.id")
+    List<Long> findBankIds(@Param("quizId") Long quizId);
+
+    @Query("select q.id from Question q where q.quiz.id = :quizId")
+    List<Long> findIdsByQuizId(@Param("quizId") Long quizId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Question q where q.id in :ids")
+    int bulkDelete(@Param("ids") List<Long> ids);
+
+    /**
+     * Stream the text of every question of a live quiz. Must be consumed inside a
+     * transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select q.id as id, q.quiz.id as quizId, q.questionText as questionText, q.updatedAt as updatedAt " +
+           "from Question q where q.quiz.deletedAt is null")
+    Stream<QuestionTextView> streamSearchable();
+
+    interface QuestionTextView {
+        Long getId();
+        Long getQuizId();
+        String getQuestionText();
+        LocalDateTime getUpdatedAt();
+    }
 }
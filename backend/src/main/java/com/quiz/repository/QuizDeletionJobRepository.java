@@ -0,0 +1,22 @@
+package com.quiz.repository;
+
+import com.quiz.entity.QuizDeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface QuizDeletionJobRepository extends JpaRepository<QuizDeletionJob, Long> {
+
+    /** Count a deleted chunk; runs in the chunk's transaction so progress matches what was removed. */
+    @Modifying
+    @Query("update QuizDeletionJob j set j.rowsDeleted = j.rowsDeleted + :rows, j.phase = :phase where j.quizId = :quizId")
+    int addRowsDeleted(@Param("quizId") Long quizId, @Param("phase") String phase, @Param("rows") long rows);
+
+    @Modifying
+    @Query("delete from QuizDeletionJob j where j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
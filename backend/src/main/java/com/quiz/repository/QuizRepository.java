@@ -1,9 +1,71 @@
 package com.quiz.repository;
 
 import com.quiz.entity.Quiz;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
+    Optional<Quiz> findByIdAndDeletedAtIsNull(Long id);
+
+    List<Quiz> findByDeletedAtIsNull();
+
+    boolean existsByIdAndDeletedAtIsNull(Long id);
+
+    /** Grading settings of a live quiz, without loading its questions. */
+    @Query("select q.id as id, q.poolSize as poolSize, q.bankVersion as bankVersion " +
+            "from Quiz q where q.id = :id and q.deletedAt is null")
+    Optional<QuizSettingsView> findSettingsById(@Param("id") Long id);
+
+    @Query("select q.bankVersion from Quiz q where q.id = :id")
+    Optional<Integer> findBankVersionById(@Param("id") Long id);
+
+    /** Mark the question bank as changed. Native, since the entity never writes the column. */
+    @Modifying
+    @Query(value = "UPDATE quizzes SET bank_version = bank_version + 1 WHERE id = :id", nativeQuery = true)
+    int bumpBankVersion(@Param("id") Long id);
+
+    @Query("select q.id from Quiz q where q.deletedAt is not null")
+    List<Long> findDeletedIds();
+
+    /** Tombstone a quiz. Returns 0 if it does not exist or is already deleted. */
+    @Modifying
+    @Query("update Quiz q set q.deletedAt = :deletedAt where q.id = :id and q.deletedAt is null")
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Modifying
+    @Query("delete from Quiz q where q.id = :id")
+    int bulkDelete(@Param("id") Long id);
+
+    /**
+     * Stream the searchable text of every live quiz. Must be consumed inside a
+     * transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select q.id as id, q.title as title, q.description as description, q.updatedAt as updatedAt " +
+            "from Quiz q where q.deletedAt is null")
+    Stream<QuizTextView> streamSearchable();
+
+    interface QuizSettingsView {
+        Long getId();
+        Integer getPoolSize();
+        Integer getBankVersion();
+    }
+
+    interface QuizTextView {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        LocalDateTime getUpdatedAt();
+    }
 }
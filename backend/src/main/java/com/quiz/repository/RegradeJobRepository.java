@@ -0,0 +1,24 @@
+package com.quiz.repository;
+
+import com.quiz.entity.RegradeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RegradeJobRepository extends JpaRepository<RegradeJob, Long> {
+    Optional<RegradeJob> findFirstByQuestionIdAndStatusIn(Long questionId, Collection<RegradeJob.Status> statuses);
+
+    List<RegradeJob> findByStatusInOrderById(Collection<RegradeJob.Status> statuses);
+
+    List<RegradeJob> findByQuizIdOrderByIdDesc(Long quizId);
+
+    @Modifying
+    @Query("delete from RegradeJob j where j.quizId = :quizId")
+    int deleteByQuizId(@Param("quizId") Long quizId);
+}
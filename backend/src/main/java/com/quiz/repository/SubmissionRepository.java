@@ -1,9 +1,46 @@
 package com.quiz.repository;
 
 import com.quiz.entity.Submission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+    Optional<Submission> findByIdempotencyKey(String idempotencyKey);
+
+    @Query("select s.id from Submission s where s.quiz.id = :quizId")
+    List<Long> findIdsByQuizId(@Param("quizId") Long quizId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Submission s where s.id in :ids")
+    int bulkDelete(@Param("ids") List<Long> ids);
+
+    /**
+     * Stream the score of every submission of a live quiz without materialising entities.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select s.id as id, s.quiz.id as quizId, s.score as score from Submission s where s.quiz.deletedAt is null")
+    Stream<ScoreView> streamAllScores();
+
+    /** Best submissions of a quiz, ordered like the leaderboard. */
+    @Query("select s.id as id, s.quiz.id as quizId, s.score as score from Submission s " +
+           "where s.quiz.id = :quizId order by s.score desc, s.id")
+    List<ScoreView> findTopScores(@Param("quizId") Long quizId, Pageable pageable);
+
+    interface ScoreView {
+        Long getId();
+        Long getQuizId();
+        Integer getScore();
+    }
 }
@@ -0,0 +1,41 @@
+package com.quiz.service;
+
+import com.quiz.entity.Option;
+import com.quiz.entity.Question;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the correct answer of one question. Detached from the
+ * entity, so it can be shared across grading threads.
+ */
+record AnswerKey(Question.QuestionType type, Long correctOptionId, String correctText) {
+
+    static AnswerKey of(Question question) {
+        Optional<Option> correctOption = question.getOptions().stream()
+                .filter(Option::getIsCorrect)
+                .findFirst();
+        return new AnswerKey(question.getType(),
+                correctOption.map(Option::getId).orElse(null),
+                correctOption.map(Option::getOptionText).orElse(null));
+    }
+
+    boolean grade(String userAnswer) {
+        if (userAnswer == null || userAnswer.trim().isEmpty() || correctOptionId == null) {
+            return false;
+        }
+
+        if (type == Question.QuestionType.MCQ || type == Question.QuestionType.TRUE_FALSE) {
+            // userAnswer should be the optionId
+            try {
+                return correctOptionId.equals(Long.parseLong(userAnswer));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        } else if (type == Question.QuestionType.TEXT) {
+            // For text questions, compare with the correct option's text (case-insensitive, exact match)
+            return userAnswer.trim().equalsIgnoreCase(correctText.trim());
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,369 @@
+package com.quiz.service;
+
+import com.quiz.dto.AutosaveMetricsDTO;
+import com.quiz.dto.SubmissionRequestDTO;
+import com.quiz.dto.SubmissionResponseDTO;
+import com.quiz.entity.Attempt;
+import com.quiz.entity.AttemptDraft;
+import com.quiz.entity.Question;
+import com.quiz.exception.AttemptAlreadySubmittedException;
+import com.quiz.exception.AttemptNotFoundException;
+import com.quiz.exception.QuizNotFoundException;
+import com.quiz.repository.AttemptDraftRepository;
+import com.quiz.repository.AttemptRepository;
+import com.quiz.repository.QuizRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Autosave for in-progress attempts. Answer changes only touch a per-attempt
+ * in-memory buffer; a scheduled flush writes the latest answer per question to
+ * {@code attempt_drafts} in one batched transaction, so repeated edits of the
+ * same question between flushes cost a single row write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AttemptService {
+    private static final String UPDATE_DRAFT =
+            "UPDATE attempt_drafts SET user_answer = :userAnswer, updated_at = :updatedAt " +
+            "WHERE attempt_id = :attemptId AND question_id = :questionId";
+    private static final String INSERT_DRAFT =
+            "INSERT INTO attempt_drafts (attempt_id, question_id, user_answer, updated_at) " +
+            "VALUES (:attemptId, :questionId, :userAnswer, :updatedAt)";
+    // Attempts that may still take drafts: not submitted and their quiz not tombstoned
+    private static final String WRITABLE_ATTEMPTS =
+            "SELECT a.id FROM attempts a JOIN quizzes q ON q.id = a.quiz_id " +
+            "WHERE a.id IN (:attemptIds) AND a.submission_id IS NULL AND q.deleted_at IS NULL";
+    private static final String EXISTING_DRAFTS =
+            "SELECT attempt_id, question_id FROM attempt_drafts WHERE attempt_id IN (:attemptIds)";
+
+    private final AttemptRepository attemptRepository;
+    private final AttemptDraftRepository attemptDraftRepository;
+    private final QuizRepository quizRepository;
+    private final QuestionPoolService questionPoolService;
+    private final SubmissionService submissionService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    // attemptId -> (questionId -> latest answer) not yet written to the database
+    private final Map<String, Map<Long, String>> buffer = new ConcurrentHashMap<>();
+    // attemptId -> latch released once the flush currently writing it has finished
+    private final Map<String, CountDownLatch> flushing = new ConcurrentHashMap<>();
+    // Attempts being graded; flushes leave their buffers alone until the outcome is known
+    private final Set<String> submitting = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder answerUpdates = new LongAdder();
+    private final LongAdder rowsFlushed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    @Value("${quiz.attempts.open-cache-size:100000}")
+    private int openCacheSize;
+
+    @Value("${quiz.attempts.open-cache-ttl:30m}")
+    private Duration openCacheTtl;
+
+    private ExpiringCache<String, Boolean> openAttempts;
+    private ExpiringCache<String, Boolean> submittedAttempts;
+    private TransactionTemplate flushTransaction;
+
+    @PostConstruct
+    void init() {
+        openAttempts = new ExpiringCache<>(openCacheSize, openCacheTtl);
+        submittedAttempts = new ExpiringCache<>(openCacheSize, openCacheTtl);
+        flushTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public Attempt startAttempt(Long quizId) {
+        QuizRepository.QuizSettingsView settings = quizRepository.findSettingsById(quizId)
+                .orElseThrow(() -> new QuizNotFoundException(quizId));
+        Attempt attempt = new Attempt();
+        attempt.setQuizId(quizId);
+        attempt.setSeed(ThreadLocalRandom.current().nextLong());
+        if (settings.getPoolSize() != null) {
+            questionPoolService.drawFor(attempt, settings.getPoolSize(), settings.getBankVersion());
+        }
+        attempt = attemptRepository.save(attempt);
+        openAttempts.put(attempt.getId(), Boolean.TRUE);
+        return attempt;
+    }
+
+    /**
+     * The attempt's questions: the ids it drew if the quiz was pooled when the
+     * attempt started, otherwise the whole quiz.
+     */
+    @Transactional(readOnly = true)
+    public List<Question> getQuestions(String attemptId) {
+        Attempt attempt = attemptRepository.findById(attemptId)
+                .orElseThrow(() -> new AttemptNotFoundException(attemptId));
+        if (!quizRepository.existsByIdAndDeletedAtIsNull(attempt.getQuizId())) {
+            throw new QuizNotFoundException(attempt.getQuizId());
+        }
+        return questionPoolService.questionsFor(attempt);
+    }
+
+    /**
+     * Buffer answer changes. Nothing is written here; the next flush persists
+     * whatever the latest answer per question is at that moment.
+     */
+    @Transactional(readOnly = true)
+    public void saveAnswers(String attemptId, List<SubmissionRequestDTO.AnswerInputDTO> answers) {
+        requireOpen(attemptId);
+        buffer.compute(attemptId, (id, pending) -> {
+            // The attempt may have been submitted since requireOpen looked
+            if (submittedAttempts.get(id) != null) {
+                throw new AttemptAlreadySubmittedException(id);
+            }
+            Map<Long, String> target = pending != null ? pending : new HashMap<>();
+            for (SubmissionRequestDTO.AnswerInputDTO answer : answers) {
+                target.put(answer.getQuestionId(), answer.getUserAnswer());
+            }
+            return target;
+        });
+        answerUpdates.add(answers.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<SubmissionRequestDTO.AnswerInputDTO> getAnswers(String attemptId) {
+        if (!attemptRepository.existsById(attemptId)) {
+            throw new AttemptNotFoundException(attemptId);
+        }
+        Map<Long, String> pending = readBuffered(attemptId);
+        Map<Long, String> answers = loadDrafts(attemptId);
+        answers.putAll(pending);
+        return toAnswerInputs(answers);
+    }
+
+    /**
+     * Promote the attempt's draft to a graded submission. Submitting twice returns
+     * the original result. Buffered answers are only discarded once the submission
+     * has committed; if grading fails they stay buffered and the attempt stays open.
+     */
+    public SubmissionResponseDTO submit(String attemptId) {
+        Attempt attempt = attemptRepository.findById(attemptId)
+                .orElseThrow(() -> new AttemptNotFoundException(attemptId));
+        if (attempt.getSubmissionId() != null) {
+            return submissionService.getSubmissionResults(attempt.getSubmissionId());
+        }
+        openAttempts.remove(attemptId);
+        submitting.add(attemptId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    // Marked before the buffer is dropped so a racing saveAnswers cannot re-create it
+                    submittedAttempts.put(attemptId, Boolean.TRUE);
+                    buffer.remove(attemptId);
+                }
+                submitting.remove(attemptId);
+            }
+        });
+
+        Map<Long, String> pending = readBuffered(attemptId);
+        Map<Long, String> answers = loadDrafts(attemptId);
+        answers.putAll(pending);
+
+        SubmissionResponseDTO response = submissionService.submitAttempt(attempt, toAnswerInputs(answers));
+        if (attemptRepository.markSubmitted(attemptId, response.getSubmissionId()) == 0) {
+            throw new AttemptAlreadySubmittedException(attemptId);
+        }
+        attemptDraftRepository.deleteByAttemptId(attemptId);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.attempts.flush-interval-ms:2000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        Map<String, Map<Long, String>> batch = new HashMap<>();
+        for (String attemptId : buffer.keySet()) {
+            buffer.computeIfPresent(attemptId, (id, pending) -> {
+                if (submittedAttempts.get(id) != null) {
+                    return null;
+                }
+                if (submitting.contains(id)) {
+                    return pending;
+                }
+                batch.put(id, pending);
+                flushing.put(id, done);
+                return null;
+            });
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            int rows = flushTransaction.execute(status -> writeDrafts(batch));
+            long elapsed = System.nanoTime() - start;
+            rowsFlushed.add(rows);
+            flushes.increment();
+            lastFlushNanos.set(elapsed);
+            totalFlushNanos.addAndGet(elapsed);
+            maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            log.warn("Autosave flush of {} attempts failed, keeping them buffered", batch.size(), e);
+            // Answers buffered since the batch was taken are newer and win
+            batch.forEach((id, failed) -> buffer.merge(id, failed, (newer, older) -> {
+                older.putAll(newer);
+                return older;
+            }));
+        } finally {
+            batch.keySet().forEach(id -> flushing.remove(id, done));
+            done.countDown();
+        }
+    }
+
+    /**
+     * Drop the unflushed answers of a quiz's attempts once the quiz has been
+     * tombstoned, so no drafts are written behind the background deletion.
+     */
+    public void discardBuffered(Long quizId) {
+        AfterCommit.run(() -> {
+            Set<String> buffered = new HashSet<>(buffer.keySet());
+            if (!buffered.isEmpty()) {
+                attemptRepository.findIdsByQuizIdAndIdIn(quizId, buffered).forEach(buffer::remove);
+            }
+        });
+    }
+
+    public AutosaveMetricsDTO getMetrics() {
+        long updates = answerUpdates.sum();
+        long rows = rowsFlushed.sum();
+        long flushCount = flushes.sum();
+        return new AutosaveMetricsDTO(
+                updates,
+                rows,
+                rows == 0 ? null : (double) updates / rows,
+                flushCount,
+                failedFlushes.sum(),
+                lastFlushNanos.get() / 1_000_000.0,
+                flushCount == 0 ? 0.0 : totalFlushNanos.get() / 1_000_000.0 / flushCount,
+                maxFlushNanos.get() / 1_000_000.0,
+                buffer.size());
+    }
+
+    private void requireOpen(String attemptId) {
+        if (openAttempts.get(attemptId) != null) {
+            return;
+        }
+        Attempt attempt = attemptRepository.findById(attemptId)
+                .orElseThrow(() -> new AttemptNotFoundException(attemptId));
+        if (attempt.getSubmissionId() != null) {
+            throw new AttemptAlreadySubmittedException(attemptId);
+        }
+        openAttempts.put(attemptId, Boolean.TRUE);
+    }
+
+    /**
+     * Copy the attempt's buffered answers. Waits for any flush that is currently
+     * writing this attempt first, so drafts read afterwards are complete.
+     */
+    private Map<Long, String> readBuffered(String attemptId) {
+        while (true) {
+            Map<Long, String> snapshot = new HashMap<>();
+            AtomicReference<CountDownLatch> inFlight = new AtomicReference<>();
+            buffer.compute(attemptId, (id, pending) -> {
+                inFlight.set(flushing.get(id));
+                if (inFlight.get() != null || pending == null) {
+                    return pending;
+                }
+                snapshot.putAll(pending);
+                return pending;
+            });
+            if (inFlight.get() == null) {
+                return snapshot;
+            }
+            try {
+                inFlight.get().await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for autosave flush", e);
+            }
+        }
+    }
+
+    private int writeDrafts(Map<String, Map<Long, String>> taken) {
+        // Answers of attempts submitted or deleted meanwhile are discarded, not written
+        Set<String> writable = new HashSet<>(jdbcTemplate.queryForList(WRITABLE_ATTEMPTS,
+                new MapSqlParameterSource("attemptIds", taken.keySet()), String.class));
+        Map<String, Map<Long, String>> batch = new HashMap<>(taken);
+        batch.keySet().retainAll(writable);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(EXISTING_DRAFTS, new MapSqlParameterSource("attemptIds", batch.keySet()),
+                (RowCallbackHandler) rs -> existing.add(rs.getString("attempt_id") + ":" + rs.getLong("question_id")));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<MapSqlParameterSource> updates = new ArrayList<>();
+        List<MapSqlParameterSource> inserts = new ArrayList<>();
+        batch.forEach((attemptId, answers) -> answers.forEach((questionId, userAnswer) -> {
+            MapSqlParameterSource row = new MapSqlParameterSource()
+                    .addValue("attemptId", attemptId)
+                    .addValue("questionId", questionId)
+                    .addValue("userAnswer", userAnswer)
+                    .addValue("updatedAt", now);
+            (existing.contains(attemptId + ":" + questionId) ? updates : inserts).add(row);
+        }));
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_DRAFT, updates.toArray(new MapSqlParameterSource[0]));
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DRAFT, inserts.toArray(new MapSqlParameterSource[0]));
+        }
+        return updates.size() + inserts.size();
+    }
+
+    private Map<Long, String> loadDrafts(String attemptId) {
+        Map<Long, String> answers = new LinkedHashMap<>();
+        for (AttemptDraft draft : attemptDraftRepository.findByAttemptId(attemptId)) {
+            answers.put(draft.getQuestionId(), draft.getUserAnswer());
+        }
+        return answers;
+    }
+
+    private List<SubmissionRequestDTO.AnswerInputDTO> toAnswerInputs(Map<Long, String> answers) {
+        return answers.entrySet().stream()
+                .map(entry -> new SubmissionRequestDTO.AnswerInputDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+}
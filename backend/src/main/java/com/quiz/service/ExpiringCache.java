@@ -0,0 +1,55 @@
+package com.quiz.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small size-bounded cache whose entries expire a fixed time after they were written.
+ * Entries are kept in write order, so both eviction and expiry work from the head.
+ */
+class ExpiringCache<K, V> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>();
+
+    ExpiringCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.writtenAt() > ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    synchronized void put(K key, V value) {
+        long now = System.nanoTime();
+        entries.remove(key);
+        entries.put(key, new Entry<>(value, now));
+
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = it.next();
+            if (entries.size() <= maxSize && now - eldest.getValue().writtenAt() <= ttlNanos) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    private record Entry<V>(V value, long writtenAt) {
+    }
+}
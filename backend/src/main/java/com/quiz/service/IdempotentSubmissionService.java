@@ -0,0 +1,142 @@
+package com.quiz.service;
+
+import com.quiz.dto.SubmissionRequestDTO;
+import com.quiz.dto.SubmissionResponseDTO;
+import com.quiz.exception.IdempotencyKeyMismatchException;
+import com.quiz.exception.InvalidIdempotencyKeyException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deduplicates retried submissions that carry an {@code Idempotency-Key}.
+ * Recent responses are served from memory, concurrent duplicates wait on the single
+ * in-flight execution, and the unique key column on submissions covers restarts and
+ * other nodes. A key is bound to a fingerprint of the request that first used it, so
+ * reusing it for a different request is rejected instead of replaying the response.
+ * Deliberately not transactional: each step runs in its own transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotentSubmissionService {
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final SubmissionService submissionService;
+    private final Map<String, Execution> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${quiz.submissions.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${quiz.submissions.idempotency.ttl:1h}")
+    private Duration ttl;
+
+    private ExpiringCache<String, Execution> completed;
+
+    @PostConstruct
+    void init() {
+        completed = new ExpiringCache<>(cacheSize, ttl);
+    }
+
+    public SubmissionResponseDTO submit(SubmissionRequestDTO request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return submissionService.submitQuiz(request);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+
+        Execution cached = completed.get(idempotencyKey);
+        if (cached != null) {
+            return cached.resultFor(idempotencyKey, fingerprint);
+        }
+
+        Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+        Execution existing = inFlight.putIfAbsent(idempotencyKey, execution);
+        if (existing != null) {
+            return existing.resultFor(idempotencyKey, fingerprint);
+        }
+
+        try {
+            Execution stored = completed.get(idempotencyKey);
+            SubmissionResponseDTO response = stored != null
+                    ? stored.resultFor(idempotencyKey, fingerprint)
+                    : execute(request, idempotencyKey, fingerprint);
+            execution.result().complete(response);
+            completed.put(idempotencyKey, execution);
+            return response;
+        } catch (RuntimeException e) {
+            execution.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, execution);
+        }
+    }
+
+    /**
+     * SHA-256 over the quiz and answers, with answers ordered by question so
+     * a retry that lists them differently still matches.
+     */
+    static String fingerprint(SubmissionRequestDTO request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getQuizId()).append('|');
+        if (request.getAnswers() != null) {
+            request.getAnswers().stream()
+                    .sorted(Comparator.comparing(SubmissionRequestDTO.AnswerInputDTO::getQuestionId,
+                            Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .forEach(answer -> {
+                        String userAnswer = String.valueOf(answer.getUserAnswer());
+                        // Length-prefixed so answer text cannot imitate the separators
+                        canonical.append(answer.getQuestionId()).append(':')
+                                .append(userAnswer.length()).append(':').append(userAnswer).append(';');
+                    });
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private SubmissionResponseDTO execute(SubmissionRequestDTO request, String idempotencyKey, String fingerprint) {
+        return submissionService.findByIdempotencyKey(idempotencyKey, fingerprint).orElseGet(() -> {
+            try {
+                return submissionService.submitQuiz(request, idempotencyKey, fingerprint);
+            } catch (DataIntegrityViolationException e) {
+                // Another node stored the same key between our lookup and insert
+                return submissionService.findByIdempotencyKey(idempotencyKey, fingerprint).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    private record Execution(String fingerprint, CompletableFuture<SubmissionResponseDTO> result) {
+        SubmissionResponseDTO resultFor(String idempotencyKey, String requestFingerprint) {
+            if (!fingerprint.equals(requestFingerprint)) {
+                throw new IdempotencyKeyMismatchException(idempotencyKey);
+            }
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.quiz.service;
+
+import com.quiz.dto.LeaderboardEntryDTO;
+import com.quiz.entity.Submission;
+import com.quiz.exception.QuizNotFoundException;
+import com.quiz.repository.QuizRepository;
+import com.quiz.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory per-quiz leaderboards. Updated incrementally on every submission and
+ * rebuilt from the database with a single streaming scan before the application
+ * starts serving requests.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService implements SmartInitializingSingleton {
+    private final SubmissionRepository submissionRepository;
+    private final QuizRepository quizRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final Map<Long, ScoreLeaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    @Value("${quiz.leaderboard.top-size:100}")
+    private int topSize;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        long loaded = template.execute(status -> {
+            long count = 0;
+            try (Stream<SubmissionRepository.ScoreView> scores = submissionRepository.streamAllScores()) {
+                for (SubmissionRepository.ScoreView row : (Iterable<SubmissionRepository.ScoreView>) scores::iterator) {
+                    leaderboardFor(row.getQuizId()).add(row.getId(), row.getScore());
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("Loaded {} submissions into {} quiz leaderboards", loaded, leaderboards.size());
+    }
+
+    /**
+     * Add a freshly saved submission. If called inside a transaction the entry is
+     * withdrawn again should that transaction roll back.
+     */
+    public void record(Submission submission) {
+        Long quizId = submission.getQuiz().getId();
+        long submissionId = submission.getId();
+        int score = submission.getScore();
+        leaderboardFor(quizId).add(submissionId, score);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+                    if (status == STATUS_ROLLED_BACK && leaderboard != null) {
+                        leaderboard.remove(submissionId, score);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Move a regraded submission to its new score. Call once the new score has
+     * committed; the counts stay exact without rescanning the quiz.
+     */
+    public void rescore(Long quizId, long submissionId, int oldScore, int newScore) {
+        ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+        if (leaderboard != null) {
+            leaderboard.rescore(submissionId, oldScore, newScore);
+        }
+    }
+
+    /**
+     * Refill the quiz's top list from the database if removals or lowered scores
+     * have left it short. Call outside the transaction that changed the scores.
+     */
+    public void refillTop(Long quizId) {
+        ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+        if (leaderboard == null || !leaderboard.needsRefill()) {
+            return;
+        }
+        List<ScoreLeaderboard.Entry> best = submissionRepository.findTopScores(quizId, PageRequest.of(0, topSize)).stream()
+                .map(row -> new ScoreLeaderboard.Entry(row.getId(), row.getScore()))
+                .collect(Collectors.toList());
+        leaderboard.refill(best);
+    }
+
+    public void evict(Long quizId) {
+        leaderboards.remove(quizId);
+    }
+
+    public List<LeaderboardEntryDTO> getTopSubmissions(Long quizId, int limit) {
+        if (!quizRepository.existsByIdAndDeletedAtIsNull(quizId)) {
+            throw new QuizNotFoundException(quizId);
+        }
+        refillTop(quizId);
+        ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+        if (leaderboard == null) {
+            return List.of();
+        }
+        return leaderboard.top(Math.min(limit, topSize)).stream()
+                .map(entry -> new LeaderboardEntryDTO(
+                        leaderboard.countAbove(entry.score()) + 1,
+                        entry.submissionId(),
+                        entry.score(),
+                        leaderboard.percentile(entry.score())))
+                .collect(Collectors.toList());
+    }
+
+    /** 1-based competition rank: ties share the same rank. */
+    public long getRank(Long quizId, int score) {
+        ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+        return leaderboard == null ? 1 : leaderboard.countAbove(score) + 1;
+    }
+
+    public double getPercentile(Long quizId, int score) {
+        ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+        return leaderboard == null ? 0.0 : leaderboard.percentile(score);
+    }
+
+    public long getSubmissionCount(Long quizId) {
+        ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+        return leaderboard == null ? 0 : leaderboard.size();
+    }
+
+    public double getAverageScore(Long quizId) {
+        ScoreLeaderboard leaderboard = leaderboards.get(quizId);
+        return leaderboard == null ? 0.0 : leaderboard.averageScore();
+    }
+
+    private ScoreLeaderboard leaderboardFor(Long quizId) {
+        return leaderboards.computeIfAbsent(quizId, id -> new ScoreLeaderboard(topSize));
+    }
+}
@@ -0,0 +1,382 @@
+package com.quiz.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quiz.dto.LiveResultsFrameDTO;
+import com.quiz.entity.Submission;
+import com.quiz.exception.QuizNotFoundException;
+import com.quiz.repository.QuizRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-Sent Events feed of submission results per quiz.
+ * The submit path only appends to a per-quiz buffer; a scheduled flush turns each
+ * buffer into one frame, serialises it once and queues it for every subscriber.
+ * Frames are written by a small sender pool. A subscriber is disconnected when its
+ * queue backs up while one of its own writes is in progress, or when a single write
+ * blocks longer than the send timeout; the pool grows by one thread for every such
+ * stuck write until it returns, so stalled clients cannot starve the healthy ones.
+ * A queue that fills only because the pool is busy drops its oldest frame instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveResultsService {
+    private static final String FRAME_EVENT = "submissions";
+
+    private final QuizRepository quizRepository;
+    private final LeaderboardService leaderboardService;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, QuizChannel> channels = new ConcurrentHashMap<>();
+
+    @Value("${quiz.live.max-events-per-frame:200}")
+    private int maxEventsPerFrame;
+
+    @Value("${quiz.live.max-queued-frames:16}")
+    private int maxQueuedFrames;
+
+    @Value("${quiz.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${quiz.live.sender-threads:8}")
+    private int senderThreads;
+
+    @Value("${quiz.live.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${quiz.live.max-stalled-threads:32}")
+    private int maxStalledThreads;
+
+    private ThreadPoolExecutor sender;
+    private int stalledSends;
+
+    @PostConstruct
+    void init() {
+        sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("live-results-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Long quizId) {
+        if (!quizRepository.existsByIdAndDeletedAtIsNull(quizId)) {
+            throw new QuizNotFoundException(quizId);
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(quizId, emitter);
+        emitter.onCompletion(subscriber::unregister);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.unregister());
+
+        channels.compute(quizId, (id, channel) -> {
+            QuizChannel target = channel != null ? channel : new QuizChannel();
+            target.subscribers.add(subscriber);
+            return target;
+        });
+
+        String snapshot = serialize(new LiveResultsFrameDTO(quizId,
+                leaderboardService.getSubmissionCount(quizId),
+                leaderboardService.getAverageScore(quizId),
+                0,
+                List.of()));
+        if (snapshot != null) {
+            subscriber.enqueue(SseEmitter.event().name(FRAME_EVENT).data(snapshot));
+        }
+        return emitter;
+    }
+
+    /**
+     * Queue a submission for the next frame. Cheap when nobody is watching the quiz,
+     * and deferred until commit so subscribers never see rolled-back submissions.
+     */
+    public void publish(Submission submission) {
+        Long quizId = submission.getQuiz().getId();
+        QuizChannel channel = channels.get(quizId);
+        if (channel == null || channel.subscribers.isEmpty()) {
+            return;
+        }
+        LiveResultsFrameDTO.SubmissionEventDTO event = new LiveResultsFrameDTO.SubmissionEventDTO(
+                submission.getId(),
+                submission.getScore(),
+                submission.getTotalQuestions(),
+                submission.getSubmittedAt());
+        // Looked up again after commit: the flush may have evicted the channel meanwhile.
+        // computeIfPresent is atomic with that eviction, so the event cannot land in a dead channel
+        AfterCommit.run(() -> channels.computeIfPresent(quizId, (id, current) -> {
+            current.offer(event);
+            return current;
+        }));
+    }
+
+    public void close(Long quizId) {
+        QuizChannel channel = channels.remove(quizId);
+        if (channel != null) {
+            channel.subscribers.forEach(Subscriber::close);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.live.flush-interval-ms:250}")
+    public void flush() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        channels.values().forEach(channel -> channel.subscribers
+                .forEach(subscriber -> subscriber.closeIfStalled(now, timeoutNanos)));
+
+        channels.forEach((quizId, channel) -> {
+            LiveResultsFrameDTO frame = channel.drain(quizId);
+            if (frame != null) {
+                broadcast(channel, serialize(frame));
+            }
+            channels.computeIfPresent(quizId, (id, current) -> current.isIdle() ? null : current);
+        });
+    }
+
+    /** Keeps idle connections open through proxies and surfaces dead ones. */
+    @Scheduled(fixedRateString = "${quiz.live.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers
+                .forEach(subscriber -> subscriber.enqueueIfIdle(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private void broadcast(QuizChannel channel, String json) {
+        if (json == null) {
+            return;
+        }
+        for (Subscriber subscriber : channel.subscribers) {
+            subscriber.enqueue(SseEmitter.event().name(FRAME_EVENT).data(json));
+        }
+    }
+
+    private String serialize(LiveResultsFrameDTO frame) {
+        try {
+            return objectMapper.writeValueAsString(frame);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise live results frame for quiz {}", frame.getQuizId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * A thread blocked in a stalled write is lost to the pool until the write fails,
+     * so the pool is widened by one for each, up to {@code max-stalled-threads}.
+     */
+    private synchronized void adjustForStalledSend(int delta) {
+        stalledSends += delta;
+        int size = senderThreads + Math.min(stalledSends, maxStalledThreads);
+        if (size > sender.getMaximumPoolSize()) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else if (size < sender.getMaximumPoolSize()) {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private final class QuizChannel {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final List<LiveResultsFrameDTO.SubmissionEventDTO> pending = new ArrayList<>();
+        private int omitted;
+
+        synchronized void offer(LiveResultsFrameDTO.SubmissionEventDTO event) {
+            if (pending.size() < maxEventsPerFrame) {
+                pending.add(event);
+            } else {
+                omitted++;
+            }
+        }
+
+        synchronized LiveResultsFrameDTO drain(Long quizId) {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            LiveResultsFrameDTO frame = new LiveResultsFrameDTO(quizId,
+                    leaderboardService.getSubmissionCount(quizId),
+                    leaderboardService.getAverageScore(quizId),
+                    omitted,
+                    new ArrayList<>(pending));
+            pending.clear();
+            omitted = 0;
+            return frame;
+        }
+
+        synchronized boolean isIdle() {
+            return subscribers.isEmpty() && pending.isEmpty();
+        }
+    }
+
+    private final class Subscriber {
+        private final Long quizId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        private boolean stalled;
+        private boolean completeAfterSend;
+        // System.nanoTime() at which the write in progress started, 0 when not writing
+        private volatile long sendStartedAt;
+
+        Subscriber(Long quizId, SseEmitter emitter) {
+            this.quizId = quizId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= maxQueuedFrames) {
+                    if (sendStartedAt != 0) {
+                        // Backed up behind its own write: this client is the slow one
+                        log.debug("Dropping slow live results subscriber for quiz {}", quizId);
+                        closed = true;
+                        completeAfterSend = true;
+                        queue.clear();
+                    } else {
+                        // Still waiting for a sender thread; do not blame the client
+                        queue.poll();
+                        queue.add(event);
+                        return;
+                    }
+                } else {
+                    queue.add(event);
+                    if (draining) {
+                        return;
+                    }
+                    draining = true;
+                    execute(this::drain);
+                    return;
+                }
+            }
+            // The draining thread completes the emitter once its write returns
+            unregister();
+        }
+
+        synchronized void enqueueIfIdle(SseEmitter.SseEventBuilder event) {
+            if (queue.isEmpty() && sendStartedAt == 0) {
+                enqueue(event);
+            }
+        }
+
+        /**
+         * Disconnect a client whose current write has been blocked for too long. The
+         * emitter is not completed here, since completing waits for the blocked write;
+         * the draining thread completes it if the write ever returns.
+         */
+        void closeIfStalled(long now, long timeoutNanos) {
+            long started = sendStartedAt;
+            if (started == 0 || now - started <= timeoutNanos) {
+                return;
+            }
+            synchronized (this) {
+                if (sendStartedAt != started || stalled) {
+                    return;
+                }
+                stalled = true;
+                closed = true;
+                completeAfterSend = true;
+                queue.clear();
+            }
+            log.debug("Dropping live results subscriber for quiz {} stuck in a write", quizId);
+            adjustForStalledSend(1);
+            unregister();
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                boolean complete = false;
+                synchronized (this) {
+                    next = closed ? null : queue.poll();
+                    if (next == null) {
+                        draining = false;
+                        complete = completeAfterSend;
+                        completeAfterSend = false;
+                    } else {
+                        sendStartedAt = System.nanoTime();
+                    }
+                }
+                if (next == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                boolean failed = false;
+                try {
+                    emitter.send(next);
+                } catch (Exception e) {
+                    failed = true;
+                } finally {
+                    boolean wasStalled;
+                    synchronized (this) {
+                        sendStartedAt = 0;
+                        wasStalled = stalled;
+                        stalled = false;
+                    }
+                    if (wasStalled) {
+                        adjustForStalledSend(-1);
+                    }
+                }
+                if (failed) {
+                    unregister();
+                    return;
+                }
+            }
+        }
+
+        /** Stop delivering and finish the response off the caller's thread. */
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            unregister();
+            execute(emitter::complete);
+        }
+
+        void unregister() {
+            synchronized (this) {
+                closed = true;
+            }
+            QuizChannel channel = channels.get(quizId);
+            if (channel != null) {
+                channel.subscribers.remove(this);
+            }
+        }
+    }
+}
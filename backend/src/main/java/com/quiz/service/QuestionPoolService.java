@@ -0,0 +1,123 @@
+package com.quiz.service;
+
+import com.quiz.entity.Attempt;
+import com.quiz.entity.Question;
+import com.quiz.exception.QuizNotFoundException;
+import com.quiz.repository.QuestionRepository;
+import com.quiz.repository.QuizRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Draws a quiz's per-attempt question set from its question bank.
+ * The bank is cached as an ordered array of question ids, and a draw is a seeded
+ * sample over that array. The drawn ids are stored on the attempt, so adding or
+ * deleting questions later never changes what an attempt is answering. Cached
+ * banks carry the quiz's bank version and are reloaded once it moves on, which
+ * also covers edits made through another node.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuestionPoolService {
+    private final QuestionRepository questionRepository;
+    private final QuizRepository quizRepository;
+    private final Map<Long, Bank> banks = new ConcurrentHashMap<>();
+
+    /** Draw a new attempt's questions and record their ids on it. */
+    public void drawFor(Attempt attempt, int poolSize, int bankVersion) {
+        List<Long> ids = drawIds(attempt.getQuizId(), poolSize, attempt.getSeed(), bankVersion);
+        attempt.setQuestionIds(ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * The questions an attempt is answering: the ids it drew when it started on a
+     * pooled quiz, otherwise the whole quiz. Questions deleted since are left out.
+     */
+    public List<Question> questionsFor(Attempt attempt) {
+        if (attempt.getQuestionIds() == null) {
+            return questionRepository.findByQuizIdOrderByQuestionOrder(attempt.getQuizId());
+        }
+        List<Long> ids = attempt.getQuestionIds().isEmpty() ? List.of()
+                : Arrays.stream(attempt.getQuestionIds().split(",")).map(Long::valueOf).collect(Collectors.toList());
+        Map<Long, Question> byId = new HashMap<>();
+        for (Question question : questionRepository.findAllById(ids)) {
+            byId.put(question.getId(), question);
+        }
+        List<Question> questions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Question question = byId.get(id);
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        return questions;
+    }
+
+    /** Ids drawn for the given seed, in bank order, from the bank at least as new as {@code bankVersion}. */
+    private List<Long> drawIds(Long quizId, int poolSize, long seed, int bankVersion) {
+        long[] bank = bank(quizId, bankVersion);
+        int[] picks = sample(bank.length, Math.min(poolSize, bank.length), seed);
+        List<Long> ids = new ArrayList<>(picks.length);
+        for (int pick : picks) {
+            ids.add(bank[pick]);
+        }
+        return ids;
+    }
+
+    /**
+     * Drop the cached bank, and again after commit so a reload racing the
+     * transaction cannot keep a stale bank.
+     */
+    public void invalidate(Long quizId) {
+        banks.remove(quizId);
+        AfterCommit.run(() -> banks.remove(quizId));
+    }
+
+    private long[] bank(Long quizId, int version) {
+        Bank cached = banks.get(quizId);
+        if (cached != null && cached.version() >= version) {
+            return cached.ids();
+        }
+        Bank loaded = load(quizId);
+        banks.merge(quizId, loaded, (current, fresh) -> current.version() >= fresh.version() ? current : fresh);
+        return loaded.ids();
+    }
+
+    /** Read the ids between two reads of the version, so they belong to that version. */
+    private Bank load(Long quizId) {
+        while (true) {
+            int before = currentVersion(quizId);
+            long[] ids = questionRepository.findBankIds(quizId).stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            if (currentVersion(quizId) == before) {
+                return new Bank(before, ids);
+            }
+        }
+    }
+
+    private int currentVersion(Long quizId) {
+        return quizRepository.findBankVersionById(quizId)
+                .orElseThrow(() -> new QuizNotFoundException(quizId));
+    }
+
+    /**
+     * Floyd's algorithm: k distinct indices out of n in O(k) time and space,
+     * returned in ascending order.
+     */
+    static int[] sample(int n, int k, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        for (int j = n - k; j < n; j++) {
+            int candidate = random.nextInt(j + 1);
+            chosen.add(chosen.contains(candidate) ? j : candidate);
+        }
+        return chosen.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private record Bank(int version, long[] ids) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.quiz.service;
+
+import com.quiz.dto.QuizDeletionStatusDTO;
+import com.quiz.entity.QuizDeletionJob;
+import com.quiz.exception.QuizNotFoundException;
+import com.quiz.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Background removal of tombstoned quizzes. Rows are deleted bottom-up with
+ * set-based statements over chunks of primary keys, each chunk in its own short
+ * transaction, so only rows belonging to the quiz being deleted are ever locked.
+ * Answers are removed per chunk of submissions together with those submissions,
+ * so each chunk only touches answers that still exist.
+ * Progress is kept in {@code quiz_deletion_jobs}, so it can be read from any node
+ * and an interrupted deletion resumes on startup from whatever rows are left.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizDeletionService {
+    // Submissions racing the tombstone can add rows after a phase has finished
+    private static final int MAX_PASSES = 3;
+    private static final Duration RETAIN_FINISHED = Duration.ofHours(1);
+
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final OptionRepository optionRepository;
+    private final SubmissionRepository submissionRepository;
+    private final AnswerRepository answerRepository;
+    private final AttemptRepository attemptRepository;
+    private final AttemptDraftRepository attemptDraftRepository;
+    private final QuizDeletionJobRepository quizDeletionJobRepository;
+    private final RegradeJobRepository regradeJobRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${quiz.deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    private ExecutorService worker;
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("quiz-deletion-"));
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Pick up deletions that were interrupted by a restart. The quiz row is removed
+     * last, so every tombstoned quiz still has rows to delete.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingDeletions() {
+        List<Long> pending = quizRepository.findDeletedIds();
+        if (!pending.isEmpty()) {
+            log.info("Resuming deletion of {} tombstoned quizzes", pending.size());
+            for (Long quizId : pending) {
+                chunkTransaction.executeWithoutResult(status -> queue(quizId));
+                worker.execute(() -> run(quizId));
+            }
+        }
+    }
+
+    /**
+     * Queue the removal of an already tombstoned quiz. Inside a transaction the job
+     * row is written with the tombstone and the work only starts once both commit.
+     */
+    public QuizDeletionStatusDTO schedule(Long quizId) {
+        quizDeletionJobRepository.deleteFinishedBefore(LocalDateTime.now().minus(RETAIN_FINISHED));
+        QuizDeletionJob job = queue(quizId);
+        AfterCommit.run(() -> worker.execute(() -> run(quizId)));
+        return toDTO(job);
+    }
+
+    public QuizDeletionStatusDTO getStatus(Long quizId) {
+        return quizDeletionJobRepository.findById(quizId)
+                .map(this::toDTO)
+                .orElseThrow(() -> new QuizNotFoundException("No deletion found for quiz with id: " + quizId));
+    }
+
+    /** Create the job, or requeue an interrupted one keeping its progress so far. */
+    private QuizDeletionJob queue(Long quizId) {
+        QuizDeletionJob job = quizDeletionJobRepository.findById(quizId).orElseGet(() -> {
+            QuizDeletionJob created = new QuizDeletionJob();
+            created.setQuizId(quizId);
+            return created;
+        });
+        job.setStatus(QuizDeletionJob.Status.QUEUED);
+        job.setFinishedAt(null);
+        job.setError(null);
+        return quizDeletionJobRepository.save(job);
+    }
+
+    private void run(Long quizId) {
+        update(quizId, job -> {
+            job.setStatus(QuizDeletionJob.Status.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(LocalDateTime.now());
+            }
+        });
+        try {
+            for (int pass = 1; ; pass++) {
+                try {
+                    deleteAll(quizId);
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    if (pass >= MAX_PASSES) {
+                        throw e;
+                    }
+                    log.info("Rows were added to quiz {} during deletion, running another pass", quizId);
+                }
+            }
+            log.info("Deleted quiz {}", quizId);
+        } catch (RuntimeException e) {
+            log.error("Deletion of quiz {} failed", quizId, e);
+            try {
+                update(quizId, job -> {
+                    job.setStatus(QuizDeletionJob.Status.FAILED);
+                    job.setFinishedAt(LocalDateTime.now());
+                    job.setError(String.valueOf(e.getMessage()));
+                });
+            } catch (RuntimeException recordFailure) {
+                log.warn("Could not record failure of quiz {} deletion", quizId, recordFailure);
+            }
+        }
+    }
+
+    private void deleteAll(Long quizId) {
+        deleteInChunks(quizId, "submissions",
+                page -> submissionRepository.findIdsByQuizId(quizId, page),
+                ids -> answerRepository.deleteBySubmissionIds(ids) + submissionRepository.bulkDelete(ids));
+        deleteInChunks(quizId, "attempts",
+                page -> attemptRepository.findIdsByQuizId(quizId, page),
+                ids -> attemptDraftRepository.deleteByAttemptIds(ids) + attemptRepository.bulkDelete(ids));
+        deleteInChunks(quizId, "options",
+                page -> optionRepository.findIdsByQuizId(quizId, page), optionRepository::bulkDelete);
+        deleteInChunks(quizId, "questions",
+                page -> questionRepository.findIdsByQuizId(quizId, page), questionRepository::bulkDelete);
+
+        // Regrade jobs stop on their own once the quiz is tombstoned and none can be
+        // queued for it any more; they go with the quiz row, in the transaction that
+        // marks the job completed
+        chunkTransaction.executeWithoutResult(status -> {
+            int deleted = regradeJobRepository.deleteByQuizId(quizId) + quizRepository.bulkDelete(quizId);
+            quizDeletionJobRepository.findById(quizId).ifPresent(job -> {
+                job.setRowsDeleted(job.getRowsDeleted() + deleted);
+                job.setPhase(null);
+                job.setStatus(QuizDeletionJob.Status.COMPLETED);
+                job.setFinishedAt(LocalDateTime.now());
+                quizDeletionJobRepository.save(job);
+            });
+        });
+    }
+
+    private <ID> void deleteInChunks(Long quizId, String phase,
+                                     Function<Pageable, List<ID>> findIds,
+                                     ToIntFunction<List<ID>> delete) {
+        chunkTransaction.executeWithoutResult(status -> quizDeletionJobRepository.addRowsDeleted(quizId, phase, 0));
+        Pageable firstChunk = PageRequest.of(0, chunkSize);
+        while (true) {
+            Integer deleted = chunkTransaction.execute(status -> {
+                List<ID> ids = findIds.apply(firstChunk);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int count = delete.applyAsInt(ids);
+                if (count == 0) {
+                    throw new IllegalStateException("No " + phase + " rows deleted for a non-empty chunk");
+                }
+                quizDeletionJobRepository.addRowsDeleted(quizId, phase, count);
+                return count;
+            });
+            if (deleted == 0) {
+                return;
+            }
+        }
+    }
+
+    private void update(Long quizId, Consumer<QuizDeletionJob> change) {
+        chunkTransaction.executeWithoutResult(status -> quizDeletionJobRepository.findById(quizId).ifPresent(job -> {
+            change.accept(job);
+            quizDeletionJobRepository.save(job);
+        }));
+    }
+
+    private QuizDeletionStatusDTO toDTO(QuizDeletionJob job) {
+        return new QuizDeletionStatusDTO(job.getQuizId(), job.getStatus().name(), job.getPhase(), job.getRowsDeleted(),
+                job.getStartedAt(), job.getFinishedAt(), job.getError());
+    }
+}
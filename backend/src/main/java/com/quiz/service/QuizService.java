@@ -1,5 +1,6 @@
 package com.quiz.service;
 
+import com.quiz.dto.QuizDeletionStatusDTO;
 import com.quiz.entity.*;
 import com.quiz.exception.QuizNotFoundException;
 import com.quiz.repository.*;
@@ -7,7 +8,9 @@ import com.quiz.exception.OptionNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -16,36 +19,76 @@ public class QuizService {
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
     private final OptionRepository optionRepository;
+    private final LeaderboardService leaderboardService;
+    private final LiveResultsService liveResultsService;
+    private final QuizDeletionService quizDeletionService;
+    private final RegradeService regradeService;
+    private final QuestionPoolService questionPoolService;
+    private final SearchService searchService;
+    private final AttemptService attemptService;
 
-    public Quiz createQuiz(String title, String description) {
+    public Quiz createQuiz(String title, String description, Integer poolSize) {
         Quiz quiz = new Quiz();
         quiz.setTitle(title);
         quiz.setDescription(description);
-        return quizRepository.save(quiz);
+        quiz.setPoolSize(normalizePoolSize(poolSize));
+        quiz = quizRepository.save(quiz);
+        searchService.indexQuiz(quiz);
+        return quiz;
     }
 
     public Quiz getQuizById(Long quizId) {
-        return quizRepository.findById(quizId)
+        return quizRepository.findByIdAndDeletedAtIsNull(quizId)
                 .orElseThrow(() -> new QuizNotFoundException(quizId));
     }
 
     public List<Quiz> getAllQuizzes() {
-        return quizRepository.findAll();
+        return quizRepository.findByDeletedAtIsNull();
     }
 
     public Quiz updateQuiz(Long quizId, String title, String description) {
         Quiz quiz = getQuizById(quizId);
         quiz.setTitle(title);
         quiz.setDescription(description);
-        return quizRepository.save(quiz);
+        quiz = quizRepository.save(quiz);
+        searchService.indexQuiz(quiz);
+        return quiz;
     }
 
-    public void deleteQuiz(Long quizId) {
-        quizRepository.deleteById(quizId);
+    public Quiz updateQuiz(Long quizId, String title, String description, Integer poolSize) {
+        Quiz quiz = getQuizById(quizId);
+        quiz.setPoolSize(normalizePoolSize(poolSize));
+        return updateQuiz(quizId, title, description);
+    }
+
+    // A missing or non-positive pool size means every question is used
+    private Integer normalizePoolSize(Integer poolSize) {
+        return poolSize != null && poolSize > 0 ? poolSize : null;
+    }
+
+    /**
+     * Tombstone the quiz so it disappears from reads immediately, then remove its
+     * rows in the background.
+     */
+    public QuizDeletionStatusDTO deleteQuiz(Long quizId) {
+        if (quizRepository.markDeleted(quizId, LocalDateTime.now()) == 0) {
+            throw new QuizNotFoundException(quizId);
+        }
+        leaderboardService.evict(quizId);
+        liveResultsService.close(quizId);
+        questionPoolService.invalidate(quizId);
+        searchService.removeQuiz(quizId);
+        attemptService.discardBuffered(quizId);
+        return quizDeletionService.schedule(quizId);
+    }
+
+    public QuizDeletionStatusDTO getDeletionStatus(Long quizId) {
+        return quizDeletionService.getStatus(quizId);
     }
 
     public Question addQuestion(Long quizId, Question.QuestionType type, String questionText) {
         Quiz quiz = getQuizById(quizId);
+        changeBank(quizId);
         
         // Calculate next order
         List<Question> existingQuestions = questionRepository.findByQuizIdOrderByQuestionOrder(quizId);
@@ -57,12 +100,15 @@ public class QuizService {
         question.setQuestionText(questionText);
         question.setQuestionOrder(nextOrder);
         
-        return questionRepository.save(question);
+        question = questionRepository.save(question);
+        searchService.indexQuestion(question);
+        return question;
     }
 
     public Option addOption(Long questionId, String optionText, Boolean isCorrect, Integer optionOrder) {
         Question question = questionRepository.findById(questionId)
                 .orElseThrow(() -> new com.quiz.exception.QuestionNotFoundException(questionId));
+        requireLiveQuiz(question);
         
         Option option = new Option();
         option.setQuestion(question);
@@ -70,31 +116,73 @@ public class QuizService {
         option.setIsCorrect(isCorrect);
         option.setOptionOrder(optionOrder);
         
-        return optionRepository.save(option);
+        option = optionRepository.save(option);
+        if (Boolean.TRUE.equals(isCorrect)) {
+            regradeService.schedule(question.getQuiz().getId(), questionId);
+        }
+        return option;
     }
 
     public Question updateQuestion(Long questionId, String questionText) {
         Question question = questionRepository.findById(questionId)
                 .orElseThrow(() -> new com.quiz.exception.QuestionNotFoundException(questionId));
+        requireLiveQuiz(question);
         question.setQuestionText(questionText);
-        return questionRepository.save(question);
+        question = questionRepository.save(question);
+        searchService.indexQuestion(question);
+        return question;
     }
 
     public void deleteQuestion(Long questionId) {
         Question question = questionRepository.findById(questionId)
                 .orElseThrow(() -> new RuntimeException("Question not found with id: " + questionId));
+        requireLiveQuiz(question);
+        changeBank(question.getQuiz().getId());
         questionRepository.deleteById(questionId);
+        searchService.removeQuestion(questionId);
     }
 
     public void deleteOption(Long optionId) {
+        Option option = optionRepository.findById(optionId).orElse(null);
+        if (option != null) {
+            Question question = option.getQuestion();
+            requireLiveQuiz(question);
+            if (Boolean.TRUE.equals(option.getIsCorrect())) {
+                regradeService.schedule(question.getQuiz().getId(), question.getId());
+            }
+        }
         optionRepository.deleteById(optionId);
     }
 
     public Option updateOption(Long optionId, String optionText, Boolean isCorrect) {
         Option option = optionRepository.findById(optionId)
                 .orElseThrow(() -> new OptionNotFoundException(optionId));
+        requireLiveQuiz(option.getQuestion());
+        boolean keyChanged = !Objects.equals(option.getIsCorrect(), isCorrect)
+                || (Boolean.TRUE.equals(isCorrect) && !Objects.equals(option.getOptionText(), optionText));
         option.setOptionText(optionText);
         option.setIsCorrect(isCorrect);
-        return optionRepository.save(option);
+        option = optionRepository.save(option);
+
+        // Existing answers were graded against the old key
+        if (keyChanged) {
+            Question question = option.getQuestion();
+            regradeService.schedule(question.getQuiz().getId(), question.getId());
+        }
+        return option;
+    }
+
+    /** Attempts keep the ids they drew, so a bank edit only affects attempts started later. */
+    private void changeBank(Long quizId) {
+        quizRepository.bumpBankVersion(quizId);
+        questionPoolService.invalidate(quizId);
+    }
+
+    // Writes to a tombstoned quiz would race its background deletion
+    private void requireLiveQuiz(Question question) {
+        Long quizId = question.getQuiz().getId();
+        if (!quizRepository.existsByIdAndDeletedAtIsNull(quizId)) {
+            throw new QuizNotFoundException(quizId);
+        }
     }
 }
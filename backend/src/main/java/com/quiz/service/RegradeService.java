@@ -0,0 +1,288 @@
+package com.quiz.service;
+
+import com.quiz.dto.RegradeJobDTO;
+import com.quiz.entity.Question;
+import com.quiz.entity.RegradeJob;
+import com.quiz.repository.AnswerRepository;
+import com.quiz.repository.QuestionRepository;
+import com.quiz.repository.QuizRepository;
+import com.quiz.repository.RegradeJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Regrades existing answers after a question's answer key changes.
+ * Answers are read in keyset-paged chunks and regraded in parallel; each chunk
+ * then updates the changed answers, recomputes the affected submission scores and
+ * advances the job checkpoint in one transaction, so a crashed job resumes where
+ * it stopped. Jobs run one at a time and are rate limited to leave room for live
+ * submissions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RegradeService {
+    private static final Set<RegradeJob.Status> ACTIVE = EnumSet.of(RegradeJob.Status.PENDING, RegradeJob.Status.RUNNING);
+
+    private static final String UPDATE_ANSWER = "UPDATE answers SET is_correct = :isCorrect WHERE id = :id";
+    private static final String SELECT_SCORES = "SELECT id, score FROM submissions WHERE id IN (:ids)";
+    private static final String RECOMPUTE_SCORES =
+            "UPDATE submissions SET score = (SELECT COUNT(*) FROM answers a " +
+            "WHERE a.submission_id = submissions.id AND a.is_correct = TRUE) WHERE id IN (:ids)";
+
+    private final RegradeJobRepository regradeJobRepository;
+    private final QuestionRepository questionRepository;
+    private final QuizRepository quizRepository;
+    private final AnswerRepository answerRepository;
+    private final LeaderboardService leaderboardService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${quiz.regrade.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${quiz.regrade.max-answers-per-second:5000}")
+    private int maxAnswersPerSecond;
+
+    private ExecutorService worker;
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        worker = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("regrade-"));
+        transaction = new TransactionTemplate(transactionManager);
+        // schedule() runs in afterCommit, where the committed transaction is still bound
+        // and would silently be joined; every step here needs a transaction of its own
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /** Resume jobs that were pending or running when the application stopped. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        List<RegradeJob> jobs = regradeJobRepository.findByStatusInOrderById(ACTIVE);
+        if (!jobs.isEmpty()) {
+            log.info("Resuming {} regrade jobs", jobs.size());
+            jobs.forEach(job -> worker.execute(() -> run(job.getId())));
+        }
+    }
+
+    /**
+     * Regrade all answers to a question once the current transaction commits.
+     * If a job for the question is already queued or running it is restarted from
+     * the first answer instead of starting a second one.
+     */
+    public void schedule(Long quizId, Long questionId) {
+        AfterCommit.run(() -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    RegradeJob job = transaction.execute(status -> enqueue(quizId, questionId));
+                    if (job != null) {
+                        worker.execute(() -> run(job.getId()));
+                    }
+                    return;
+                } catch (OptimisticLockingFailureException e) {
+                    // Raced with the running job finishing or checkpointing; look again
+                    if (attempt >= 3) {
+                        log.error("Could not schedule regrade of question {}", questionId, e);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    public List<RegradeJobDTO> getJobs(Long quizId) {
+        return regradeJobRepository.findByQuizIdOrderByIdDesc(quizId).stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private void run(Long jobId) {
+        while (!Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            ChunkResult result;
+            try {
+                result = transaction.execute(status -> processChunk(jobId));
+            } catch (OptimisticLockingFailureException e) {
+                // The key changed again and the job was restarted; the chunk rolled back
+                continue;
+            } catch (RuntimeException e) {
+                log.error("Regrade job {} failed", jobId, e);
+                markFailed(jobId, e);
+                return;
+            }
+
+            if (result.quizId() != null) {
+                // Lowered scores may have pushed entries out of the top list
+                leaderboardService.refillTop(result.quizId());
+            }
+            if (result.finished()) {
+                return;
+            }
+            throttle(result.processed(), System.nanoTime() - start);
+        }
+    }
+
+    /** Returns the new job, or null if an active job was restarted or the quiz is being deleted. */
+    private RegradeJob enqueue(Long quizId, Long questionId) {
+        if (!quizRepository.existsByIdAndDeletedAtIsNull(quizId)) {
+            return null;
+        }
+        RegradeJob active = regradeJobRepository.findFirstByQuestionIdAndStatusIn(questionId, ACTIVE).orElse(null);
+        if (active != null) {
+            active.restart();
+            regradeJobRepository.save(active);
+            return null;
+        }
+        RegradeJob job = new RegradeJob();
+        job.setQuizId(quizId);
+        job.setQuestionId(questionId);
+        job.setStatus(RegradeJob.Status.PENDING);
+        job.restart();
+        return regradeJobRepository.save(job);
+    }
+
+    private ChunkResult processChunk(Long jobId) {
+        RegradeJob job = regradeJobRepository.findById(jobId).orElse(null);
+        if (job == null || !ACTIVE.contains(job.getStatus())) {
+            return new ChunkResult(true, 0, null);
+        }
+        if (!quizRepository.existsByIdAndDeletedAtIsNull(job.getQuizId())) {
+            // Tombstoned: its answers are being deleted and the job row goes with the quiz
+            return new ChunkResult(true, 0, null);
+        }
+        job.setStatus(RegradeJob.Status.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+
+        Question question = questionRepository.findById(job.getQuestionId()).orElse(null);
+        List<AnswerRepository.GradingView> chunk = question == null ? List.of()
+                : answerRepository.findChunkForGrading(question.getId(), job.getLastAnswerId(), PageRequest.of(0, chunkSize));
+        if (chunk.isEmpty()) {
+            job.setStatus(RegradeJob.Status.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            regradeJobRepository.save(job);
+            log.info("Regrade job {} finished: {} answers checked, {} changed",
+                    jobId, job.getAnswersProcessed(), job.getAnswersChanged());
+            return new ChunkResult(true, 0, null);
+        }
+
+        AnswerKey key = AnswerKey.of(question);
+        List<AnswerRepository.GradingView> changed = chunk.parallelStream()
+                .filter(answer -> key.grade(answer.getUserAnswer()) != Boolean.TRUE.equals(answer.getIsCorrect()))
+                .collect(Collectors.toList());
+
+        if (!changed.isEmpty()) {
+            MapSqlParameterSource[] updates = changed.stream()
+                    .map(answer -> new MapSqlParameterSource()
+                            .addValue("id", answer.getId())
+                            .addValue("isCorrect", !Boolean.TRUE.equals(answer.getIsCorrect())))
+                    .toArray(MapSqlParameterSource[]::new);
+            jdbcTemplate.batchUpdate(UPDATE_ANSWER, updates);
+
+            Set<Long> submissionIds = changed.stream()
+                    .map(AnswerRepository.GradingView::getSubmissionId)
+                    .collect(Collectors.toSet());
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids", submissionIds);
+            Map<Long, Integer> oldScores = readScores(ids);
+            jdbcTemplate.update(RECOMPUTE_SCORES, ids);
+            Map<Long, Integer> newScores = readScores(ids);
+
+            // Move each submission on the leaderboard by its own delta instead of replacing
+            // the board with a rescan, which would lose submissions recorded meanwhile
+            Long quizId = job.getQuizId();
+            AfterCommit.run(() -> newScores.forEach((submissionId, score) ->
+                    leaderboardService.rescore(quizId, submissionId, oldScores.getOrDefault(submissionId, score), score)));
+        }
+
+        job.setLastAnswerId(chunk.get(chunk.size() - 1).getId());
+        job.setAnswersProcessed(job.getAnswersProcessed() + chunk.size());
+        job.setAnswersChanged(job.getAnswersChanged() + changed.size());
+        regradeJobRepository.save(job);
+        return new ChunkResult(false, chunk.size(), changed.isEmpty() ? null : job.getQuizId());
+    }
+
+    private Map<Long, Integer> readScores(MapSqlParameterSource ids) {
+        Map<Long, Integer> scores = new HashMap<>();
+        jdbcTemplate.query(SELECT_SCORES, ids,
+                (RowCallbackHandler) rs -> scores.put(rs.getLong("id"), rs.getInt("score")));
+        return scores;
+    }
+
+    private void markFailed(Long jobId, Exception cause) {
+        try {
+            transaction.executeWithoutResult(status -> regradeJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(RegradeJob.Status.FAILED);
+                job.setFinishedAt(LocalDateTime.now());
+                job.setError(String.valueOf(cause.getMessage()));
+                regradeJobRepository.save(job);
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not record failure of regrade job {}", jobId, e);
+        }
+    }
+
+    /** Sleep long enough to keep the job at or below the configured answer rate. */
+    private void throttle(int processed, long elapsedNanos) {
+        if (maxAnswersPerSecond <= 0) {
+            return;
+        }
+        long budgetNanos = TimeUnit.SECONDS.toNanos(processed) / maxAnswersPerSecond;
+        long sleepNanos = budgetNanos - elapsedNanos;
+        if (sleepNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RegradeJobDTO toDTO(RegradeJob job) {
+        Double answersPerSecond = null;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            long millis = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1);
+            answersPerSecond = job.getAnswersProcessed() * 1000.0 / millis;
+        }
+        return new RegradeJobDTO(job.getId(), job.getQuizId(), job.getQuestionId(), job.getStatus().name(),
+                job.getAnswersProcessed(), job.getAnswersChanged(), answersPerSecond,
+                job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(), job.getError());
+    }
+
+    private record ChunkResult(boolean finished, int processed, Long quizId) {
+    }
+}
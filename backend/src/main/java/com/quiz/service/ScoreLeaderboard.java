@@ -0,0 +1,193 @@
+package com.quiz.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Order-statistic structure over the scores of a single quiz.
+ * Per-score counts live in a Fenwick tree, so rank and percentile are answered in
+ * O(log maxScore); only the best {@code topCapacity} submissions are kept individually,
+ * which keeps memory independent of the number of submissions. When removals or
+ * lowered scores leave that list short, it is refilled from the database with
+ * {@link #refill}.
+ */
+class ScoreLeaderboard {
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt(Entry::score).reversed()
+            .thenComparingLong(Entry::submissionId);
+
+    private final int topCapacity;
+    private final TreeSet<Entry> top = new TreeSet<>(ORDER);
+    // Best entry ever dropped from the top list; anything ranking below it may have
+    // untracked submissions ahead of it, so it is not let back in
+    private Entry bestUntracked;
+    private long[] counts = new long[16];
+    private long[] tree = new long[17];
+    private long total;
+    private long scoreSum;
+
+    ScoreLeaderboard(int topCapacity) {
+        this.topCapacity = topCapacity;
+    }
+
+    synchronized void add(long submissionId, int score) {
+        ensureCapacity(score);
+        counts[score]++;
+        update(score, 1);
+        total++;
+        scoreSum += score;
+
+        Entry entry = new Entry(submissionId, score);
+        if (bestUntracked != null && ORDER.compare(entry, bestUntracked) > 0) {
+            return;
+        }
+        top.add(entry);
+        if (top.size() > topCapacity) {
+            Entry dropped = top.pollLast();
+            if (bestUntracked == null || ORDER.compare(dropped, bestUntracked) < 0) {
+                bestUntracked = dropped;
+            }
+        }
+    }
+
+    /**
+     * Undo a previous {@link #add}. The top list is not refilled from below here;
+     * {@link #needsRefill} reports when it has to be.
+     */
+    synchronized void remove(long submissionId, int score) {
+        if (score >= counts.length || counts[score] == 0) {
+            return;
+        }
+        counts[score]--;
+        update(score, -1);
+        total--;
+        scoreSum -= score;
+        top.remove(new Entry(submissionId, score));
+    }
+
+    /** Move a submission to a new score, e.g. after it was regraded. */
+    synchronized void rescore(long submissionId, int oldScore, int newScore) {
+        if (oldScore == newScore) {
+            return;
+        }
+        remove(submissionId, oldScore);
+        add(submissionId, newScore);
+    }
+
+    /** Whether the top list is short while untracked submissions could fill it. */
+    synchronized boolean needsRefill() {
+        return top.size() < topCapacity && total > top.size();
+    }
+
+    /**
+     * Refill the top list from the best committed submissions, given best first and
+     * at most {@code topCapacity} of them. Entries already tracked take precedence,
+     * since they include uncommitted submissions and may carry newer scores.
+     */
+    synchronized void refill(List<Entry> best) {
+        Map<Long, Entry> merged = new HashMap<>();
+        best.forEach(entry -> merged.put(entry.submissionId(), entry));
+        top.forEach(entry -> merged.put(entry.submissionId(), entry));
+        top.clear();
+        top.addAll(merged.values());
+
+        Entry dropped = null;
+        while (top.size() > topCapacity) {
+            dropped = top.pollLast();
+        }
+        if (dropped != null) {
+            bestUntracked = dropped;
+        } else if (best.size() >= topCapacity) {
+            // Submissions beyond the page all rank below the last one kept
+            bestUntracked = top.last();
+        } else {
+            bestUntracked = null;
+        }
+    }
+
+    /** Number of submissions with a strictly higher score. */
+    synchronized long countAbove(int score) {
+        return total - countAtMost(score);
+    }
+
+    /**
+     * Percentile rank of a score: the share of submissions scoring lower,
+     * counting ties as half, on a 0-100 scale.
+     */
+    synchronized double percentile(int score) {
+        if (total == 0) {
+            return 0.0;
+        }
+        long below = countAtMost(score - 1);
+        long equal = countAtMost(score) - below;
+        return (below + equal / 2.0) * 100.0 / total;
+    }
+
+    synchronized List<Entry> top(int limit) {
+        List<Entry> result = new ArrayList<>(Math.min(limit, top.size()));
+        for (Entry entry : top) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    synchronized long size() {
+        return total;
+    }
+
+    synchronized double averageScore() {
+        return total == 0 ? 0.0 : (double) scoreSum / total;
+    }
+
+    private long countAtMost(int score) {
+        if (score < 0) {
+            return 0;
+        }
+        int i = Math.min(score, counts.length - 1) + 1;
+        long sum = 0;
+        while (i > 0) {
+            sum += tree[i];
+            i -= i & -i;
+        }
+        return sum;
+    }
+
+    private void update(int score, long delta) {
+        for (int i = score + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void ensureCapacity(int score) {
+        if (score < counts.length) {
+            return;
+        }
+        int size = counts.length;
+        while (size <= score) {
+            size <<= 1;
+        }
+        long[] grown = new long[size];
+        System.arraycopy(counts, 0, grown, 0, counts.length);
+        counts = grown;
+
+        // Rebuild the Fenwick tree in O(n) from the raw counts
+        tree = new long[size + 1];
+        for (int i = 1; i <= size; i++) {
+            tree[i] += counts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    record Entry(long submissionId, int score) {
+    }
+}
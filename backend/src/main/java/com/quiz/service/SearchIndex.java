@@ -0,0 +1,533 @@
+package com.quiz.service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Inverted index over quiz titles, descriptions and question text.
+ * Documents get dense int ids and postings are kept as sorted primitive arrays.
+ * Replaced or removed documents are only flagged in a bitset and dropped from the
+ * postings by a compaction once they make up half of the index, so memory stays
+ * proportional to the live documents. Queries are ranked with BM25.
+ * Every put carries the document's version and is ignored if a newer version, or
+ * the removal of the document or its quiz, has already been applied, so updates
+ * may arrive out of order. Removals are remembered for {@link #REMOVAL_GRACE_NANOS},
+ * well past the time any older put can still be in flight.
+ * Each document keeps its display text (a quiz's title or a question's text), so
+ * hits can be shown without going back to the database.
+ */
+class SearchIndex {
+    enum Type { QUIZ, QUESTION }
+
+    record Clause(String term, boolean prefix) {
+    }
+
+    record Hit(Type type, long id, long quizId, String quizTitle, String text, double score) {
+    }
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final int TITLE_BOOST = 3;
+    private static final int COMPACT_MIN_DELETED = 1024;
+    private static final long REMOVAL_GRACE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "by", "for", "in", "is", "it", "of", "on", "or", "the", "to", "which");
+    private static final Type[] TYPES = Type.values();
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score)
+            .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> quizDocs = new HashMap<>();
+    private final Map<Long, Integer> questionDocs = new HashMap<>();
+    private final Map<Long, Set<Long>> quizQuestions = new HashMap<>();
+    // Latest version applied per live quiz and question
+    private final Map<Long, Long> quizVersions = new HashMap<>();
+    private final Map<Long, Long> questionVersions = new HashMap<>();
+    // When each recently removed quiz and question was removed, oldest first; ids are never reused
+    private final LinkedHashMap<Long, Long> removedQuizzes = new LinkedHashMap<>();
+    private final LinkedHashMap<Long, Long> removedQuestions = new LinkedHashMap<>();
+    private final LongSupplier nanoClock;
+    private BitSet deleted = new BitSet();
+    private byte[] types = new byte[1024];
+    private long[] ids = new long[1024];
+    private long[] quizIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private String[] texts = new String[1024];
+    private int maxDoc;
+    private int deletedCount;
+    private long liveLength;
+
+    SearchIndex() {
+        this(System::nanoTime);
+    }
+
+    SearchIndex(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Index a quiz or replace an older version of it. Its questions are left alone.
+     * Returns false if the put was ignored as stale.
+     */
+    boolean putQuiz(long quizId, String title, String description, long version) {
+        Map<String, Integer> freqs = new HashMap<>();
+        countTerms(title, TITLE_BOOST, freqs);
+        countTerms(description, 1, freqs);
+        lock.writeLock().lock();
+        try {
+            expireRemovals();
+            if (removedQuizzes.containsKey(quizId) || !advance(quizVersions, quizId, version)) {
+                return false;
+            }
+            delete(quizDocs.remove(quizId));
+            quizDocs.put(quizId, add(Type.QUIZ, quizId, quizId, title, freqs));
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Index a question or replace an older version of it, unless its quiz was removed. */
+    void putQuestion(long questionId, long quizId, String text, long version) {
+        Map<String, Integer> freqs = new HashMap<>();
+        countTerms(text, 1, freqs);
+        lock.writeLock().lock();
+        try {
+            expireRemovals();
+            if (removedQuizzes.containsKey(quizId) || removedQuestions.containsKey(questionId)
+                    || !advance(questionVersions, questionId, version)) {
+                return;
+            }
+            delete(questionDocs.remove(questionId));
+            questionDocs.put(questionId, add(Type.QUESTION, questionId, quizId, text, freqs));
+            quizQuestions.computeIfAbsent(quizId, id -> new HashSet<>()).add(questionId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a quiz together with all of its questions. Only the quiz's removal is
+     * recorded, since it already turns away late puts of its questions.
+     */
+    void removeQuiz(long quizId) {
+        lock.writeLock().lock();
+        try {
+            expireRemovals();
+            markRemoved(removedQuizzes, quizId);
+            quizVersions.remove(quizId);
+            delete(quizDocs.remove(quizId));
+            Set<Long> questions = quizQuestions.remove(quizId);
+            if (questions != null) {
+                for (Long questionId : questions) {
+                    questionVersions.remove(questionId);
+                    delete(questionDocs.remove(questionId));
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeQuestion(long questionId) {
+        lock.writeLock().lock();
+        try {
+            expireRemovals();
+            markRemoved(removedQuestions, questionId);
+            questionVersions.remove(questionId);
+            Integer doc = questionDocs.remove(questionId);
+            if (doc != null) {
+                Set<Long> siblings = quizQuestions.get(quizIds[doc]);
+                siblings.remove(questionId);
+                if (siblings.isEmpty()) {
+                    quizQuestions.remove(quizIds[doc]);
+                }
+                delete(doc);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return maxDoc - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents matching every clause, best first. A prefix clause matches the
+     * first {@code maxExpansions} indexed terms starting with it and scores a
+     * document by its best matching term.
+     */
+    List<Hit> search(List<Clause> clauses, int limit, int maxExpansions) {
+        if (clauses.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int live = maxDoc - deletedCount;
+            if (live == 0) {
+                return List.of();
+            }
+            double avgLength = Math.max((double) liveLength / live, 1);
+            List<List<Postings>> expanded = new ArrayList<>(clauses.size());
+            for (Clause clause : clauses) {
+                List<Postings> postings = expand(clause, maxExpansions);
+                if (postings.isEmpty()) {
+                    return List.of();
+                }
+                expanded.add(postings);
+            }
+
+            // Only the rarest clause is materialised; the others are probed for its candidates
+            expanded.sort(Comparator.comparingLong(SearchIndex::docCount));
+            Matches result = collect(expanded.get(0), live, avgLength);
+            for (int i = 1; i < expanded.size() && result.size > 0; i++) {
+                result = result.retain(expanded.get(i), live, avgLength);
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+            for (int i = 0; i < result.size; i++) {
+                if (best.size() == limit && result.scores[i] <= best.peek().score()) {
+                    continue;
+                }
+                int doc = result.docs[i];
+                best.add(new Hit(TYPES[types[doc]], ids[doc], quizIds[doc], quizTitle(quizIds[doc]), texts[doc],
+                        result.scores[i]));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split a user query into clauses. A token ending in {@code *} becomes a prefix
+     * clause; stop words are ignored unless used as a prefix.
+     */
+    static List<Clause> parse(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        Set<Clause> clauses = new LinkedHashSet<>();
+        for (String piece : query.trim().split("\\s+")) {
+            boolean prefix = piece.endsWith("*");
+            List<String> tokens = new ArrayList<>();
+            tokenize(piece, tokens::add);
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean last = i == tokens.size() - 1;
+                if (prefix && last) {
+                    clauses.add(new Clause(tokens.get(i), true));
+                } else if (!STOP_WORDS.contains(tokens.get(i))) {
+                    clauses.add(new Clause(tokens.get(i), false));
+                }
+            }
+        }
+        return new ArrayList<>(clauses);
+    }
+
+    private static void countTerms(String text, int weight, Map<String, Integer> freqs) {
+        tokenize(text, token -> {
+            if (!STOP_WORDS.contains(token)) {
+                freqs.merge(token, weight, Integer::sum);
+            }
+        });
+    }
+
+    private static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    sink.accept(text.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static boolean advance(Map<Long, Long> versions, long id, long version) {
+        Long current = versions.get(id);
+        if (current != null && current > version) {
+            return false;
+        }
+        versions.put(id, version);
+        return true;
+    }
+
+    private void markRemoved(LinkedHashMap<Long, Long> removed, long id) {
+        // Re-inserted so the map stays ordered by removal time
+        removed.remove(id);
+        removed.put(id, nanoClock.getAsLong());
+    }
+
+    /** Forget removals old enough that no put from before them can still arrive. */
+    private void expireRemovals() {
+        long now = nanoClock.getAsLong();
+        for (LinkedHashMap<Long, Long> removed : List.of(removedQuizzes, removedQuestions)) {
+            Iterator<Long> removedAt = removed.values().iterator();
+            while (removedAt.hasNext() && now - removedAt.next() >= REMOVAL_GRACE_NANOS) {
+                removedAt.remove();
+            }
+        }
+    }
+
+    private String quizTitle(long quizId) {
+        Integer doc = quizDocs.get(quizId);
+        return doc == null ? null : texts[doc];
+    }
+
+    private int add(Type type, long id, long quizId, String text, Map<String, Integer> freqs) {
+        int doc = maxDoc++;
+        if (doc == ids.length) {
+            int capacity = doc + (doc >> 1);
+            types = Arrays.copyOf(types, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            quizIds = Arrays.copyOf(quizIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+        types[doc] = (byte) type.ordinal();
+        ids[doc] = id;
+        quizIds[doc] = quizId;
+        texts[doc] = text;
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        lengths[doc] = length;
+        liveLength += length;
+        return doc;
+    }
+
+    private void delete(Integer doc) {
+        if (doc != null && !deleted.get(doc)) {
+            deleted.set(doc);
+            deletedCount++;
+            liveLength -= lengths[doc];
+            texts[doc] = null;
+        }
+    }
+
+    /** Rewrite the index without deleted documents once they are half of it. */
+    private void compactIfNeeded() {
+        if (deletedCount < COMPACT_MIN_DELETED || deletedCount * 2 < maxDoc) {
+            return;
+        }
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            types[next] = types[doc];
+            ids[next] = ids[doc];
+            quizIds[next] = quizIds[doc];
+            lengths[next] = lengths[doc];
+            texts[next] = texts[doc];
+            next++;
+        }
+        terms.values().removeIf(postings -> postings.compact(remap) == 0);
+        quizDocs.replaceAll((id, doc) -> remap[doc]);
+        questionDocs.replaceAll((id, doc) -> remap[doc]);
+
+        int capacity = Math.max(next + (next >> 1), 1024);
+        types = Arrays.copyOf(types, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        quizIds = Arrays.copyOf(quizIds, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+        // Let the texts of the dropped documents be collected
+        Arrays.fill(texts, next, Math.min(maxDoc, capacity), null);
+        maxDoc = next;
+        deletedCount = 0;
+        deleted = new BitSet();
+    }
+
+    private List<Postings> expand(Clause clause, int maxExpansions) {
+        if (!clause.prefix()) {
+            Postings postings = terms.get(clause.term());
+            return postings == null ? List.of() : List.of(postings);
+        }
+        List<Postings> expansions = new ArrayList<>();
+        for (Postings postings : terms.subMap(clause.term(), true, clause.term() + Character.MAX_VALUE, false).values()) {
+            if (expansions.size() >= maxExpansions) {
+                break;
+            }
+            expansions.add(postings);
+        }
+        return expansions;
+    }
+
+    private static long docCount(List<Postings> expansions) {
+        long count = 0;
+        for (Postings postings : expansions) {
+            count += postings.size;
+        }
+        return count;
+    }
+
+    /** All live documents of a clause, scored by their best matching term. */
+    private Matches collect(List<Postings> expansions, int live, double avgLength) {
+        // Pack (doc, score) pairs so one primitive sort orders them by doc
+        long[] packed = new long[(int) docCount(expansions)];
+        int count = 0;
+        for (Postings postings : expansions) {
+            double idf = idf(postings.size, live);
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                if (!deleted.get(doc)) {
+                    float score = (float) (idf * termWeight(postings.freqs[i], lengths[doc], avgLength));
+                    packed[count++] = ((long) doc << 32) | (Float.floatToRawIntBits(score) & 0xFFFFFFFFL);
+                }
+            }
+        }
+        if (expansions.size() > 1) {
+            Arrays.sort(packed, 0, count);
+        }
+
+        int[] docs = new int[count];
+        double[] scores = new double[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = (int) (packed[i] >>> 32);
+            double score = Float.intBitsToFloat((int) packed[i]);
+            if (size > 0 && docs[size - 1] == doc) {
+                scores[size - 1] = Math.max(scores[size - 1], score);
+            } else {
+                docs[size] = doc;
+                scores[size] = score;
+                size++;
+            }
+        }
+        return new Matches(docs, scores, size);
+    }
+
+    // Postings still count deleted documents until the next compaction
+    private static double idf(int docFreq, int live) {
+        return Math.log(1 + (Math.max(live, docFreq) - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    private static double termWeight(int freq, int length, double avgLength) {
+        return freq * (K1 + 1) / (freq + K1 * (1 - B + B * length / avgLength));
+    }
+
+    /** Sorted doc ids of one term with their frequencies; doc ids only ever grow. */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private short[] freqs = new short[2];
+        private int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = (short) Math.min(freq, Short.MAX_VALUE);
+            size++;
+        }
+
+        int compact(int[] remap) {
+            int next = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[next] = doc;
+                    freqs[next] = freqs[i];
+                    next++;
+                }
+            }
+            size = next;
+            if (next < docs.length / 4) {
+                docs = Arrays.copyOf(docs, Math.max(next, 2));
+                freqs = Arrays.copyOf(freqs, Math.max(next, 2));
+            }
+            return size;
+        }
+    }
+
+    private final class Matches {
+        private final int[] docs;
+        private final double[] scores;
+        private final int size;
+
+        Matches(int[] docs, double[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        /**
+         * Keep the candidates that also match one of the given terms, adding the best
+         * of their scores. Candidates ascend, so each search gallops on from where the
+         * previous one ended.
+         */
+        Matches retain(List<Postings> expansions, int live, double avgLength) {
+            double[] best = new double[size];
+            Arrays.fill(best, Double.NEGATIVE_INFINITY);
+            for (Postings postings : expansions) {
+                double idf = idf(postings.size, live);
+                int from = 0;
+                for (int i = 0; i < size && from < postings.size; i++) {
+                    int found = gallop(postings, from, docs[i]);
+                    if (found >= 0) {
+                        double score = idf * termWeight(postings.freqs[found], lengths[docs[i]], avgLength);
+                        best[i] = Math.max(best[i], score);
+                        from = found + 1;
+                    } else {
+                        from = -found - 1;
+                    }
+                }
+            }
+
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (best[i] != Double.NEGATIVE_INFINITY) {
+                    docs[count] = docs[i];
+                    scores[count] = scores[i] + best[i];
+                    count++;
+                }
+            }
+            return new Matches(docs, scores, count);
+        }
+
+        private static int gallop(Postings postings, int from, int doc) {
+            int step = 1;
+            while (from + step < postings.size && postings.docs[from + step] < doc) {
+                step <<= 1;
+            }
+            return Arrays.binarySearch(postings.docs, from + (step >> 1), Math.min(from + step + 1, postings.size), doc);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.quiz.service;
+
+import com.quiz.dto.SearchResultDTO;
+import com.quiz.entity.Question;
+import com.quiz.entity.Quiz;
+import com.quiz.repository.QuestionRepository;
+import com.quiz.repository.QuizRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keyword search over quizzes and questions backed by an in-memory inverted index.
+ * The index is loaded with a streaming scan before the application starts serving
+ * requests and then kept current by {@link QuizService} once its changes commit.
+ * Each change is applied with the entity's {@code updatedAt} as its version, since
+ * after-commit callbacks of concurrent transactions may run in either order.
+ * Results are built from the text held in the index, without a database query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService implements SmartInitializingSingleton {
+    private final QuizRepository quizRepository;
+    private final QuestionRepository questionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final SearchIndex index = new SearchIndex();
+
+    @Value("${quiz.search.max-results:100}")
+    private int maxResults;
+
+    @Value("${quiz.search.max-prefix-expansions:64}")
+    private int maxPrefixExpansions;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> {
+            try (Stream<QuizRepository.QuizTextView> quizzes = quizRepository.streamSearchable()) {
+                quizzes.forEach(row -> index.putQuiz(row.getId(), row.getTitle(), row.getDescription(),
+                        version(row.getUpdatedAt())));
+            }
+            try (Stream<QuestionRepository.QuestionTextView> questions = questionRepository.streamSearchable()) {
+                questions.forEach(row -> index.putQuestion(row.getId(), row.getQuizId(), row.getQuestionText(),
+                        version(row.getUpdatedAt())));
+            }
+        });
+        log.info("Indexed {} quizzes and questions for search", index.size());
+    }
+
+    public void indexQuiz(Quiz quiz) {
+        Long quizId = quiz.getId();
+        String title = quiz.getTitle();
+        String description = quiz.getDescription();
+        // updatedAt is only set when the change is flushed, so it is read after commit
+        AfterCommit.run(() -> index.putQuiz(quizId, title, description, version(quiz.getUpdatedAt())));
+    }
+
+    public void removeQuiz(Long quizId) {
+        AfterCommit.run(() -> index.removeQuiz(quizId));
+    }
+
+    public void indexQuestion(Question question) {
+        Long questionId = question.getId();
+        Long quizId = question.getQuiz().getId();
+        String text = question.getQuestionText();
+        AfterCommit.run(() -> index.putQuestion(questionId, quizId, text, version(question.getUpdatedAt())));
+    }
+
+    public void removeQuestion(Long questionId) {
+        AfterCommit.run(() -> index.removeQuestion(questionId));
+    }
+
+    private static long version(LocalDateTime updatedAt) {
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + updatedAt.getNano();
+    }
+
+    /**
+     * Quizzes and questions containing every term of the query, best match first.
+     * A term ending in {@code *} matches as a prefix.
+     */
+    public List<SearchResultDTO> search(String query, int limit) {
+        List<SearchIndex.Hit> hits = index.search(SearchIndex.parse(query), Math.min(limit, maxResults), maxPrefixExpansions);
+        return hits.stream()
+                .map(hit -> hit.type() == SearchIndex.Type.QUIZ
+                        ? new SearchResultDTO(hit.type().name(), hit.id(), hit.quizTitle(), null, null, hit.score())
+                        : new SearchResultDTO(hit.type().name(), hit.quizId(), hit.quizTitle(),
+                                hit.id(), hit.text(), hit.score()))
+                .collect(Collectors.toList());
+    }
+}
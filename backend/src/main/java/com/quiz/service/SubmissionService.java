@@ -3,6 +3,8 @@ package com.quiz.service;
 import com.quiz.dto.SubmissionRequestDTO;
 import com.quiz.dto.SubmissionResponseDTO;
 import com.quiz.entity.*;
+import com.quiz.exception.IdempotencyKeyMismatchException;
+import com.quiz.exception.InvalidSubmissionException;
 import com.quiz.exception.QuizNotFoundException;
 import com.quiz.repository.*;
 import lombok.RequiredArgsConstructor;
@@ -19,15 +21,53 @@ public class SubmissionService {
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
     private final AnswerRepository answerRepository;
+    private final LeaderboardService leaderboardService;
+    private final LiveResultsService liveResultsService;
+    private final QuestionPoolService questionPoolService;
 
     public SubmissionResponseDTO submitQuiz(SubmissionRequestDTO request) {
-        Quiz quiz = quizRepository.findById(request.getQuizId())
-                .orElseThrow(() -> new QuizNotFoundException(request.getQuizId()));
+        return submitQuiz(request, null, null);
+    }
 
+    /**
+     * Grade and persist a submission. A non-null idempotency key is stored on the
+     * submission together with the request's fingerprint; its unique constraint
+     * rejects a second insert with the same key.
+     */
+    public SubmissionResponseDTO submitQuiz(SubmissionRequestDTO request, String idempotencyKey, String fingerprint) {
+        // Only the settings are read here; loading the Quiz entity would pull in the whole question bank
+        QuizRepository.QuizSettingsView settings = quizRepository.findSettingsById(request.getQuizId())
+                .orElseThrow(() -> new QuizNotFoundException(request.getQuizId()));
+        if (settings.getPoolSize() != null) {
+            // Which questions were drawn is only known server side, on the attempt
+            throw new InvalidSubmissionException(
+                    "Quiz " + settings.getId() + " draws questions from a pool; submit it through an attempt");
+        }
         List<Question> questions = questionRepository.findByQuizIdOrderByQuestionOrder(request.getQuizId());
-        
+
         Submission submission = new Submission();
-        submission.setQuiz(quiz);
+        submission.setIdempotencyKey(idempotencyKey);
+        submission.setRequestFingerprint(fingerprint);
+        return grade(submission, settings.getId(), questions, request.getAnswers());
+    }
+
+    /**
+     * Grade an attempt over exactly the questions it was shown.
+     */
+    public SubmissionResponseDTO submitAttempt(Attempt attempt, List<SubmissionRequestDTO.AnswerInputDTO> answers) {
+        if (!quizRepository.existsByIdAndDeletedAtIsNull(attempt.getQuizId())) {
+            throw new QuizNotFoundException(attempt.getQuizId());
+        }
+        List<Question> questions = questionPoolService.questionsFor(attempt);
+
+        Submission submission = new Submission();
+        submission.setSeed(attempt.getQuestionIds() != null ? attempt.getSeed() : null);
+        return grade(submission, attempt.getQuizId(), questions, answers);
+    }
+
+    private SubmissionResponseDTO grade(Submission submission, Long quizId, List<Question> questions,
+                                        List<SubmissionRequestDTO.AnswerInputDTO> answerInputs) {
+        submission.setQuiz(quizRepository.getReferenceById(quizId));
         submission.setTotalQuestions(questions.size());
         submission.setScore(0);
 
@@ -37,7 +77,7 @@ public class SubmissionService {
         List<Answer> answers = new ArrayList<>();
 
         // Create a map of questionId to SubmissionRequestDTO.AnswerInputDTO for quick lookup
-        Map<Long, SubmissionRequestDTO.AnswerInputDTO> answerMap = request.getAnswers().stream()
+        Map<Long, SubmissionRequestDTO.AnswerInputDTO> answerMap = answerInputs.stream()
                 .collect(Collectors.toMap(SubmissionRequestDTO.AnswerInputDTO::getQuestionId, a -> a));
 
         for (Question question : questions) {
@@ -60,6 +100,8 @@ public class SubmissionService {
         submission.setScore(score);
         submission.setAnswers(answers);
         submission = submissionRepository.save(submission);
+        leaderboardService.record(submission);
+        liveResultsService.publish(submission);
 
         return buildSubmissionResponse(submission);
     }
@@ -68,41 +110,7 @@ public class SubmissionService {
      * Grade a single answer based on question type.
      */
     private boolean gradeAnswer(Question question, String userAnswer) {
-        if (userAnswer == null || userAnswer.trim().isEmpty()) {
-            return false;
-        }
-
-        if (question.getType() == Question.QuestionType.MCQ ||
-            question.getType() == Question.QuestionType.TRUE_FALSE) {
-            // userAnswer should be the optionId
-            Optional<Option> correctOption = question.getOptions().stream()
-                    .filter(Option::getIsCorrect)
-                    .findFirst();
-
-            if (correctOption.isEmpty()) {
-                return false;
-            }
-
-            try {
-                Long selectedOptionId = Long.parseLong(userAnswer);
-                return correctOption.get().getId().equals(selectedOptionId);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else if (question.getType() == Question.QuestionType.TEXT) {
-            // For text questions, compare with the correct option's text (case-insensitive, exact match)
-            Optional<Option> correctOption = question.getOptions().stream()
-                    .filter(Option::getIsCorrect)
-                    .findFirst();
-
-            if (correctOption.isEmpty()) {
-                return false;
-            }
-
-            return userAnswer.trim().equalsIgnoreCase(correctOption.get().getOptionText().trim());
-        }
-
-        return false;
+        return AnswerKey.of(question).grade(userAnswer);
     }
 
     public SubmissionResponseDTO getSubmissionResults(Long submissionId) {
@@ -111,6 +119,21 @@ public class SubmissionService {
         return buildSubmissionResponse(submission);
     }
 
+    /**
+     * The stored response for an idempotency key. Fails if the key was first used
+     * with a different request.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SubmissionResponseDTO> findByIdempotencyKey(String idempotencyKey, String fingerprint) {
+        return submissionRepository.findByIdempotencyKey(idempotencyKey)
+                .map(submission -> {
+                    if (!Objects.equals(submission.getRequestFingerprint(), fingerprint)) {
+                        throw new IdempotencyKeyMismatchException(idempotencyKey);
+                    }
+                    return buildSubmissionResponse(submission);
+                });
+    }
+
     private SubmissionResponseDTO buildSubmissionResponse(Submission submission) {
         SubmissionResponseDTO response = new SubmissionResponseDTO();
         response.setSubmissionId(submission.getId());
@@ -118,6 +141,8 @@ public class SubmissionService {
         response.setScore(submission.getScore());
         response.setTotalQuestions(submission.getTotalQuestions());
         response.setSubmittedAt(submission.getSubmittedAt());
+        response.setRank(leaderboardService.getRank(submission.getQuiz().getId(), submission.getScore()));
+        response.setPercentile(leaderboardService.getPercentile(submission.getQuiz().getId(), submission.getScore()));
 
         List<SubmissionResponseDTO.AnswerResultDTO> answerResults = submission.getAnswers().stream()
                 .map(answer -> {
@@ -3,6 +3,10 @@
 -- Database: H2 In-Memory Database
 
 -- Drop tables if exists (for clean installation)
+DROP TABLE IF EXISTS quiz_deletion_jobs CASCADE;
+DROP TABLE IF EXISTS regrade_jobs CASCADE;
+DROP TABLE IF EXISTS attempt_drafts CASCADE;
+DROP TABLE IF EXISTS attempts CASCADE;
 DROP TABLE IF EXISTS answers CASCADE;
 DROP TABLE IF EXISTS submissions CASCADE;
 DROP TABLE IF EXISTS options CASCADE;
@@ -15,7 +19,10 @@ CREATE TABLE quizzes (
     title VARCHAR(255) NOT NULL,
     description TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP,
+    pool_size INT,
+    bank_version INT NOT NULL DEFAULT 0
 );
 
 CREATE INDEX idx_quizzes_created_at ON quizzes(created_at);
@@ -29,6 +36,7 @@ CREATE TABLE questions (
     question_text TEXT NOT NULL,
     question_order INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_question_quiz FOREIGN KEY (quiz_id) 
         REFERENCES quizzes(id) 
         ON DELETE CASCADE
@@ -61,6 +69,9 @@ CREATE TABLE submissions (
     score INT NOT NULL DEFAULT 0,
     total_questions INT NOT NULL DEFAULT 0,
     submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    idempotency_key VARCHAR(128),
+    request_fingerprint CHAR(64),
+    seed BIGINT,
     CONSTRAINT fk_submission_quiz FOREIGN KEY (quiz_id) 
         REFERENCES quizzes(id) 
         ON DELETE CASCADE
@@ -69,6 +80,8 @@ CREATE TABLE submissions (
 CREATE INDEX idx_submissions_quiz_id ON submissions(quiz_id);
 CREATE INDEX idx_submissions_submitted_at ON submissions(submitted_at);
 CREATE INDEX idx_submissions_score ON submissions(score);
+CREATE INDEX idx_submissions_quiz_score ON submissions(quiz_id, score);
+CREATE UNIQUE INDEX uk_submissions_idempotency_key ON submissions(idempotency_key);
 
 -- Create answers table (user responses)
 CREATE TABLE answers (
@@ -90,6 +103,61 @@ CREATE INDEX idx_answers_submission_id ON answers(submission_id);
 CREATE INDEX idx_answers_question_id ON answers(question_id);
 CREATE INDEX idx_answers_is_correct ON answers(is_correct);
 
+-- Create attempts table (in-progress attempts)
+CREATE TABLE attempts (
+    id VARCHAR(36) PRIMARY KEY,
+    quiz_id BIGINT NOT NULL,
+    submission_id BIGINT,
+    seed BIGINT NOT NULL,
+    question_ids TEXT,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_attempts_quiz_id ON attempts(quiz_id);
+
+-- Create attempt_drafts table (latest autosaved answer per question)
+CREATE TABLE attempt_drafts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    attempt_id VARCHAR(36) NOT NULL,
+    question_id BIGINT NOT NULL,
+    user_answer TEXT,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_attempt_drafts_attempt_question UNIQUE (attempt_id, question_id)
+);
+
+-- Create regrade_jobs table (regrading after answer key changes)
+CREATE TABLE regrade_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    quiz_id BIGINT NOT NULL,
+    question_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_answer_id BIGINT NOT NULL DEFAULT 0,
+    answers_processed BIGINT NOT NULL DEFAULT 0,
+    answers_changed BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    error VARCHAR(1000),
+    version BIGINT
+);
+
+CREATE INDEX idx_regrade_jobs_quiz_id ON regrade_jobs(quiz_id);
+CREATE INDEX idx_regrade_jobs_question_status ON regrade_jobs(question_id, status);
+
+-- Create quiz_deletion_jobs table (background removal of tombstoned quizzes; outlives the quiz row)
+CREATE TABLE quiz_deletion_jobs (
+    quiz_id BIGINT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    phase VARCHAR(20),
+    rows_deleted BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    error VARCHAR(1000)
+);
+
+CREATE INDEX idx_quiz_deletion_jobs_finished_at ON quiz_deletion_jobs(finished_at);
+
 -- Insert sample data (optional - remove in production)
 -- Sample Quiz
 INSERT INTO quizzes (title, description, created_at, updated_at) 
@@ -3,6 +3,10 @@
 -- Database: MySQL 8.0+ / H2 (compatible)
 
 -- Drop tables if exists (for clean installation)
+DROP TABLE IF EXISTS quiz_deletion_jobs;
+DROP TABLE IF EXISTS regrade_jobs;
+DROP TABLE IF EXISTS attempt_drafts;
+DROP TABLE IF EXISTS attempts;
 DROP TABLE IF EXISTS answers;
 DROP TABLE IF EXISTS submissions;
 DROP TABLE IF EXISTS options;
@@ -16,6 +20,9 @@ CREATE TABLE quizzes (
     description TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP NULL,
+    pool_size INT NULL,
+    bank_version INT NOT NULL DEFAULT 0,
     INDEX idx_created_at (created_at),
     INDEX idx_title (title)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -28,6 +35,7 @@ CREATE TABLE questions (
     question_text TEXT NOT NULL,
     question_order INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_question_quiz FOREIGN KEY (quiz_id) 
         REFERENCES quizzes(id) 
         ON DELETE CASCADE,
@@ -58,12 +66,17 @@ CREATE TABLE submissions (
     score INT NOT NULL DEFAULT 0,
     total_questions INT NOT NULL DEFAULT 0,
     submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    idempotency_key VARCHAR(128),
+    request_fingerprint CHAR(64) NULL,
+    seed BIGINT NULL,
     CONSTRAINT fk_submission_quiz FOREIGN KEY (quiz_id) 
         REFERENCES quizzes(id) 
         ON DELETE CASCADE,
     INDEX idx_quiz_id (quiz_id),
     INDEX idx_submitted_at (submitted_at),
-    INDEX idx_score (score)
+    INDEX idx_score (score),
+    INDEX idx_quiz_score (quiz_id, score),
+    UNIQUE KEY uk_idempotency_key (idempotency_key)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Create answers table (user responses)
@@ -85,6 +98,58 @@ CREATE TABLE answers (
     INDEX idx_is_correct (is_correct)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Create attempts table (in-progress attempts)
+CREATE TABLE attempts (
+    id VARCHAR(36) PRIMARY KEY,
+    quiz_id BIGINT NOT NULL,
+    submission_id BIGINT,
+    seed BIGINT NOT NULL,
+    question_ids TEXT NULL,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_quiz_id (quiz_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create attempt_drafts table (latest autosaved answer per question)
+CREATE TABLE attempt_drafts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    attempt_id VARCHAR(36) NOT NULL,
+    question_id BIGINT NOT NULL,
+    user_answer TEXT,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_attempt_drafts_attempt_question (attempt_id, question_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create regrade_jobs table (regrading after answer key changes)
+CREATE TABLE regrade_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    quiz_id BIGINT NOT NULL,
+    question_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_answer_id BIGINT NOT NULL DEFAULT 0,
+    answers_processed BIGINT NOT NULL DEFAULT 0,
+    answers_changed BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL,
+    error VARCHAR(1000),
+    version BIGINT,
+    INDEX idx_quiz_id (quiz_id),
+    INDEX idx_question_status (question_id, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Create quiz_deletion_jobs table (background removal of tombstoned quizzes; outlives the quiz row)
+CREATE TABLE quiz_deletion_jobs (
+    quiz_id BIGINT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    phase VARCHAR(20),
+    rows_deleted BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL,
+    error VARCHAR(1000),
+    INDEX idx_finished_at (finished_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insert sample data (optional - remove in production)
 -- Sample Quiz
 INSERT INTO quizzes (title, description, created_at, updated_at) 
@@ -116,6 +181,10 @@ VALUES
 -- QUIZZES TABLE:
 -- - Stores quiz metadata (title, description, timestamps)
 -- - Primary table for the quiz management system
+-- - deleted_at tombstones a quiz: it is hidden at once and its rows are removed in the background
+-- - pool_size, when set, makes each attempt draw that many random questions from the bank;
+--   the attempt keeps the drawn ids (attempts.question_ids), so later bank edits cannot change them
+-- - bank_version is bumped whenever a question is added or deleted, so cached banks can tell they are stale
 --
 -- QUESTIONS TABLE:
 -- - Stores individual questions linked to quizzes
@@ -131,6 +200,8 @@ VALUES
 -- SUBMISSIONS TABLE:
 -- - Stores quiz submission metadata
 -- - Tracks score and total questions for quick results
+-- - idempotency_key (optional, unique) deduplicates retried POST /api/submissions requests
+-- - request_fingerprint (SHA-256 of quiz, seed and answers) ties a key to the request that first used it
 -- - CASCADE DELETE: When a quiz is deleted, all submissions are deleted
 --
 -- ANSWERS TABLE:
@@ -139,3 +210,12 @@ VALUES
 -- - user_answer stores the actual answer (option ID for MCQ, text for TEXT type)
 -- - is_correct flag indicates if the answer was correct
 -- - CASCADE DELETE: When submission or question is deleted, answers are deleted
+--
+-- ATTEMPTS / ATTEMPT_DRAFTS TABLES:
+-- - An attempt is an in-progress quiz run; submission_id is set once it is submitted
+-- - attempt_drafts keeps only the latest autosaved answer per (attempt, question)
+-- - Rows are written in periodic batches, so they carry ids without foreign keys
+--
+-- REGRADE_JOBS TABLE:
+-- - One job per answer key change, regrading every answer to the question
+-- - last_answer_id is the checkpoint a restarted job resumes from
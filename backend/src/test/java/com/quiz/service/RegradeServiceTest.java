@@ -0,0 +1,75 @@
+package com.quiz.service;
+
+import com.quiz.dto.SubmissionRequestDTO;
+import com.quiz.dto.SubmissionResponseDTO;
+import com.quiz.entity.Option;
+import com.quiz.entity.Question;
+import com.quiz.entity.Quiz;
+import com.quiz.entity.RegradeJob;
+import com.quiz.repository.RegradeJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RegradeServiceTest {
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private RegradeJobRepository regradeJobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void changingTheCorrectOptionRegradesExistingAnswers() throws InterruptedException {
+        Quiz quiz = quizService.createQuiz("Regrade", "Answer key changes", null);
+        Question question = quizService.addQuestion(quiz.getId(), Question.QuestionType.MCQ, "Pick B");
+        Option a = quizService.addOption(question.getId(), "A", true, 1);
+        Option b = quizService.addOption(question.getId(), "B", false, 2);
+
+        SubmissionResponseDTO submission = submissionService.submitQuiz(new SubmissionRequestDTO(quiz.getId(),
+                List.of(new SubmissionRequestDTO.AnswerInputDTO(question.getId(), String.valueOf(b.getId())))));
+        assertEquals(0, submission.getScore());
+        awaitRegrades(quiz.getId());
+
+        quizService.updateOption(a.getId(), "A", false);
+        quizService.updateOption(b.getId(), "B", true);
+        awaitRegrades(quiz.getId());
+
+        Boolean isCorrect = jdbcTemplate.queryForObject(
+                "SELECT is_correct FROM answers WHERE submission_id = ?", Boolean.class, submission.getSubmissionId());
+        Integer score = jdbcTemplate.queryForObject(
+                "SELECT score FROM submissions WHERE id = ?", Integer.class, submission.getSubmissionId());
+        assertTrue(isCorrect);
+        assertEquals(1, score);
+        assertEquals(1, leaderboardService.getRank(quiz.getId(), 1));
+        assertEquals(1.0, leaderboardService.getAverageScore(quiz.getId()));
+    }
+
+    private void awaitRegrades(Long quizId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<RegradeJob> jobs = regradeJobRepository.findByQuizIdOrderByIdDesc(quizId);
+            assertFalse(jobs.stream().anyMatch(job -> job.getStatus() == RegradeJob.Status.FAILED));
+            if (jobs.stream().allMatch(job -> job.getStatus() == RegradeJob.Status.COMPLETED)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Regrade jobs of quiz " + quizId + " did not finish");
+    }
+}
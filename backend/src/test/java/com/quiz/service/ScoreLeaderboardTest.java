@@ -0,0 +1,68 @@
+package com.quiz.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreLeaderboardTest {
+
+    @Test
+    void rankAndPercentileCountEverySubmission() {
+        ScoreLeaderboard leaderboard = new ScoreLeaderboard(2);
+        leaderboard.add(1, 5);
+        leaderboard.add(2, 3);
+        leaderboard.add(3, 3);
+        leaderboard.add(4, 1);
+
+        assertEquals(0, leaderboard.countAbove(5));
+        assertEquals(1, leaderboard.countAbove(3));
+        assertEquals(50.0, leaderboard.percentile(3));
+        assertEquals(3.0, leaderboard.averageScore());
+        assertEquals(List.of(new ScoreLeaderboard.Entry(1, 5), new ScoreLeaderboard.Entry(2, 3)), leaderboard.top(10));
+    }
+
+    @Test
+    void loweredScoreIsRefilledFromBelow() {
+        ScoreLeaderboard leaderboard = new ScoreLeaderboard(2);
+        leaderboard.add(1, 5);
+        leaderboard.add(2, 4);
+        leaderboard.add(3, 3);
+        leaderboard.add(4, 2);
+
+        leaderboard.rescore(1, 5, 0);
+        assertTrue(leaderboard.needsRefill());
+        assertEquals(List.of(new ScoreLeaderboard.Entry(2, 4)), leaderboard.top(10));
+
+        leaderboard.refill(List.of(new ScoreLeaderboard.Entry(2, 4), new ScoreLeaderboard.Entry(3, 3)));
+
+        assertFalse(leaderboard.needsRefill());
+        assertEquals(List.of(new ScoreLeaderboard.Entry(2, 4), new ScoreLeaderboard.Entry(3, 3)), leaderboard.top(10));
+        // Below the refilled list, so untracked submissions may rank ahead of it
+        leaderboard.add(5, 1);
+        assertEquals(2, leaderboard.top(10).size());
+        // Above the last tracked entry, so it takes that place
+        leaderboard.add(6, 4);
+        assertEquals(List.of(new ScoreLeaderboard.Entry(2, 4), new ScoreLeaderboard.Entry(6, 4)), leaderboard.top(10));
+    }
+
+    @Test
+    void refillKeepsTrackedEntriesOverStaleRows() {
+        ScoreLeaderboard leaderboard = new ScoreLeaderboard(3);
+        leaderboard.add(1, 5);
+        leaderboard.add(2, 4);
+        leaderboard.add(3, 3);
+        leaderboard.add(4, 1);
+        leaderboard.remove(3, 3);
+        // Recorded but not yet committed, so the database does not return it
+        leaderboard.add(5, 2);
+
+        leaderboard.refill(List.of(new ScoreLeaderboard.Entry(1, 5), new ScoreLeaderboard.Entry(2, 4),
+                new ScoreLeaderboard.Entry(4, 1)));
+
+        assertEquals(List.of(new ScoreLeaderboard.Entry(1, 5), new ScoreLeaderboard.Entry(2, 4),
+                new ScoreLeaderboard.Entry(5, 2)), leaderboard.top(10));
+    }
+}
@@ -0,0 +1,179 @@
+package com.quiz.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+    private long now;
+    private final SearchIndex index = new SearchIndex(() -> now);
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches() {
+        index.putQuiz(1, "Geography basics", "Rivers and capitals", 1);
+        index.putQuiz(2, "World history", "Some geography of ancient empires", 1);
+
+        List<SearchIndex.Hit> hits = search("geography");
+
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void everyClauseMustMatch() {
+        index.putQuestion(10, 1, "What is the capital of France?", 1);
+        index.putQuestion(11, 1, "What is the capital of Spain?", 1);
+        index.putQuestion(12, 2, "Which river flows through France?", 1);
+
+        assertEquals(List.of(10L), ids(search("capital france")));
+        assertEquals(List.of(), ids(search("capital germany")));
+    }
+
+    @Test
+    void prefixClauseMatchesAnyExpansion() {
+        index.putQuestion(10, 1, "Name a photosynthetic organism", 1);
+        index.putQuestion(11, 1, "Explain photons", 1);
+        index.putQuestion(12, 1, "Describe a telephone", 1);
+
+        List<SearchIndex.Hit> hits = search("phot*");
+
+        assertEquals(2, hits.size());
+        assertTrue(ids(hits).containsAll(List.of(10L, 11L)));
+        assertEquals(SearchIndex.Type.QUESTION, hits.get(0).type());
+        assertEquals(1L, hits.get(0).quizId());
+    }
+
+    @Test
+    void replacingADocumentDropsItsOldTerms() {
+        index.putQuestion(10, 1, "Old wording about volcanoes", 1);
+        index.putQuestion(10, 1, "New wording about glaciers", 2);
+
+        assertEquals(List.of(), ids(search("volcanoes")));
+        assertEquals(List.of(10L), ids(search("glaciers")));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void stalePutsAreIgnored() {
+        index.putQuestion(10, 1, "Second version", 2);
+        index.putQuestion(10, 1, "First version", 1);
+        assertTrue(index.putQuiz(1, "Current title", null, 5));
+        assertFalse(index.putQuiz(1, "Earlier title", null, 4));
+
+        assertEquals(List.of(10L), ids(search("second")));
+        assertEquals(List.of(), ids(search("first")));
+        assertEquals(List.of(1L), ids(search("current")));
+        assertEquals(List.of(), ids(search("earlier")));
+    }
+
+    @Test
+    void putsArrivingAfterARemovalAreIgnored() {
+        index.putQuiz(1, "Astronomy", null, 1);
+        index.putQuestion(10, 1, "Name a planet", 1);
+        index.removeQuiz(1);
+
+        assertFalse(index.putQuiz(1, "Astronomy", null, 2));
+        index.putQuestion(10, 1, "Name a planet", 2);
+        index.putQuestion(11, 1, "Name a star", 2);
+
+        assertEquals(0, index.size());
+        assertEquals(List.of(), ids(search("name")));
+    }
+
+    @Test
+    void removalsAreForgottenAfterTheGracePeriod() {
+        index.putQuiz(1, "Astronomy", null, 1);
+        index.putQuestion(10, 1, "Name a planet", 1);
+        index.removeQuiz(1);
+        index.putQuestion(20, 2, "Name a moon", 1);
+        index.removeQuestion(20);
+
+        now += TimeUnit.MINUTES.toNanos(11);
+        index.removeQuestion(99);
+        index.putQuestion(10, 1, "Name a planet", 2);
+        index.putQuestion(20, 2, "Name a moon", 2);
+
+        assertEquals(List.of(10L, 20L), ids(search("name")).stream().sorted().toList());
+    }
+
+    @Test
+    void removingAQuizLeavesOtherQuizzesQuestions() {
+        index.putQuestion(10, 1, "Name a planet", 1);
+        index.putQuestion(11, 2, "Name a comet", 1);
+        index.putQuestion(12, 1, "Name a star", 1);
+        index.removeQuestion(12);
+        index.removeQuiz(1);
+
+        assertEquals(List.of(11L), ids(search("name")));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void hitsCarryTheirDisplayText() {
+        index.putQuiz(1, "Chemistry", "Elements", 1);
+        index.putQuestion(10, 1, "Which elements are noble gases?", 1);
+        index.putQuiz(1, "Inorganic chemistry", "Elements", 2);
+
+        List<SearchIndex.Hit> hits = search("elements");
+
+        SearchIndex.Hit quiz = hits.stream().filter(hit -> hit.type() == SearchIndex.Type.QUIZ).findFirst().orElseThrow();
+        SearchIndex.Hit question = hits.stream().filter(hit -> hit.type() == SearchIndex.Type.QUESTION).findFirst().orElseThrow();
+        assertEquals("Inorganic chemistry", quiz.quizTitle());
+        assertEquals("Inorganic chemistry", question.quizTitle());
+        assertEquals("Which elements are noble gases?", question.text());
+    }
+
+    @Test
+    void removingAQuestionKeepsItsQuiz() {
+        index.putQuiz(1, "Chemistry", "Elements", 1);
+        index.putQuestion(10, 1, "Chemistry of noble gases", 1);
+        index.removeQuestion(10);
+        index.putQuestion(10, 1, "Chemistry of noble gases", 2);
+
+        assertEquals(List.of(1L), ids(search("chemistry")));
+    }
+
+    @Test
+    void resultsSurviveCompaction() {
+        for (long id = 0; id < 10_000; id++) {
+            index.putQuestion(id, id % 10, "Question number q" + id + (id % 2 == 0 ? " even" : " odd"), 1);
+        }
+        for (long id = 0; id < 6_000; id++) {
+            index.removeQuestion(id);
+        }
+
+        assertEquals(4_000, index.size());
+        assertEquals(List.of(9_998L), ids(search("q9998")));
+        assertEquals(List.of(), ids(search("q5998")));
+        assertEquals(2_000, index.search(SearchIndex.parse("even"), 10_000, 64).size());
+
+        index.putQuestion(9_998, 8, "Rewritten after compaction", 2);
+        assertEquals(List.of(9_998L), ids(search("rewritten")));
+        assertEquals("Rewritten after compaction", search("rewritten").get(0).text());
+        assertEquals(List.of(), ids(search("q9998")));
+
+        index.removeQuiz(9);
+        assertEquals(List.of(), ids(search("q9999")));
+        assertEquals(3_600, index.size());
+    }
+
+    @Test
+    void parseSkipsStopWordsAndKeepsPrefixes() {
+        assertEquals(List.of(new SearchIndex.Clause("capital", false), new SearchIndex.Clause("fra", true)),
+                SearchIndex.parse("The capital of Fra*"));
+        assertEquals(List.of(new SearchIndex.Clause("in", true)), SearchIndex.parse("in*"));
+        assertEquals(List.of(), SearchIndex.parse(null));
+    }
+
+    private List<SearchIndex.Hit> search(String query) {
+        return index.search(SearchIndex.parse(query), 20, 64);
+    }
+
+    private static List<Long> ids(List<SearchIndex.Hit> hits) {
+        return hits.stream().map(SearchIndex.Hit::id).toList();
+    }
+}